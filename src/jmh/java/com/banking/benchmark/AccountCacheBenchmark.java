@@ -0,0 +1,68 @@
+package com.banking.benchmark;
+
+import com.banking.dto.AccountResponse;
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance lookups at a 20:1 read to write ratio, through GET /account and straight from the repository.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountCacheBenchmark {
+
+    private AccountRepository accountRepo;
+
+    @Setup
+    public void setUp(BankingState state) {
+        accountRepo = state.bean(AccountRepository.class);
+    }
+
+    @Benchmark
+    @Group("cached")
+    @GroupThreads(20)
+    public ResponseEntity<AccountResponse> cachedRead(BankingState state) {
+        return state.controller.getCustomer(state.randomAccountNum(), null);
+    }
+
+    @Benchmark
+    @Group("cached")
+    @GroupThreads(1)
+    public ResponseEntity<Account> cachedWrite(BankingState state) throws BadRequestException {
+        return state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null);
+    }
+
+    @Benchmark
+    @Group("uncached")
+    @GroupThreads(20)
+    public Account uncachedRead(BankingState state) {
+        return accountRepo.findByAccountNum(state.randomAccountNum());
+    }
+
+    @Benchmark
+    @Group("uncached")
+    @GroupThreads(1)
+    public ResponseEntity<Account> uncachedWrite(BankingState state) throws BadRequestException {
+        return state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null);
+    }
+}
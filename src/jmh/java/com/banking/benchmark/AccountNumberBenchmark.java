@@ -0,0 +1,44 @@
+package com.banking.benchmark;
+
+import com.banking.service.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AccountNumberBenchmark {
+
+    private AccountNumberAllocator allocator;
+
+    @Setup
+    public void setUp(BankingState state) {
+        allocator = state.bean(AccountNumberAllocator.class);
+    }
+
+    @Benchmark
+    public long randomNumber() {
+        return ThreadLocalRandom.current().nextLong(10000000000L, 99999999999L);
+    }
+
+    @Benchmark
+    public long allocatedNumber() {
+        return allocator.next();
+    }
+}
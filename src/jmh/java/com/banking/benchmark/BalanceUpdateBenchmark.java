@@ -0,0 +1,79 @@
+package com.banking.benchmark;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import com.banking.service.AccountBalanceService;
+import com.banking.service.ConcurrencyMode;
+import com.banking.service.LedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single conditional UPDATE (ATOMIC) and the insert-only ledger (LEDGER) against the read-then-save flows, on
+ * random accounts and on one hot account.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class BalanceUpdateBenchmark {
+
+    @Param({"ATOMIC", "PESSIMISTIC", "OPTIMISTIC", "STRIPED", "LEDGER"})
+    public ConcurrencyMode mode;
+
+    private LedgerService ledgerService;
+    private AccountBalanceService balanceService;
+
+    @Setup
+    public void setUp(BankingState state) {
+        AccountRepository accountRepo = state.bean(AccountRepository.class);
+        PlatformTransactionManager transactionManager = state.bean(PlatformTransactionManager.class);
+        ledgerService = new LedgerService(accountRepo, state.bean(AccountTransactionRepository.class), transactionManager, mode);
+        balanceService = new AccountBalanceService(accountRepo, ledgerService, transactionManager, mode, 10, 64);
+    }
+
+    @TearDown(Level.Iteration)
+    public void compactLedger() {
+        // fold every pending entry so iterations start from the same table size
+        ledgerService.compact(1000);
+    }
+
+    @Benchmark
+    public Account depositRandomAccount(BankingState state) {
+        return deposit(state.randomAccountNum());
+    }
+
+    @Benchmark
+    public Account depositHotAccount(BankingState state) {
+        return deposit(state.accountNums[0]);
+    }
+
+    private Account deposit(long accountNum) {
+        try {
+            return balanceService.deposit(accountNum, 100L);
+        } catch (BadRequestException ex) {
+            // optimistic retries exhausted under contention
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.banking.benchmark;
+
+import com.banking.BankingApplication;
+import com.banking.controller.BankingController;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.repository.CustomerRepository;
+import com.banking.service.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application against a fresh in-memory H2 database and loads a reproducible dataset of
+ * {@code -Dbanking.benchmark.customers} customers with one account each.
+ */
+@State(Scope.Benchmark)
+public class BankingState {
+
+    public static final int CUSTOMERS = Integer.getInteger("banking.benchmark.customers", 10000);
+    public static final int DISTINCT_NAMES = 1000;
+    private static final long SEED = 20230301L;
+    private static final int CHUNK = 1000;
+
+    public ConfigurableApplicationContext context;
+    public BankingController controller;
+    public long[] accountNums;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = application().run();
+        controller = context.getBean(BankingController.class);
+        loadDataset();
+    }
+
+    protected SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(BankingApplication.class)
+                .properties("logging.level.root=WARN")
+                .initializers(overriding("server.port=0", "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1"));
+    }
+
+    /**
+     * Properties that take precedence over application.properties and the profile files. Properties set on the
+     * builder are only defaults, so a parameter passed that way is silently ignored whenever the files set it too.
+     * Each call is added in front of the previous ones, so a subclass overrides what this class sets.
+     */
+    protected static ApplicationContextInitializer<ConfigurableApplicationContext> overriding(String... properties) {
+        Map<String, Object> source = new LinkedHashMap<>();
+        for (String property : properties) {
+            int eq = property.indexOf('=');
+            source.put(property.substring(0, eq), property.substring(eq + 1));
+        }
+        return context -> context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark" + source.keySet(), source));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Empties the customer and account tables, the seeded dataset included, for benchmarks that insert so many
+     * rows that the in-memory database would otherwise fill the heap and turn later iterations into GC time.
+     */
+    public void deleteCustomers() {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        jdbc.execute("set referential_integrity false");
+        try {
+            jdbc.execute("truncate table account");
+            jdbc.execute("truncate table customer");
+        } finally {
+            jdbc.execute("set referential_integrity true");
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomAccountNum() {
+        return accountNums[ThreadLocalRandom.current().nextInt(accountNums.length)];
+    }
+
+    public String randomCustName() {
+        return custName(ThreadLocalRandom.current().nextInt(DISTINCT_NAMES));
+    }
+
+    public Customer newCustomer(String name, double balanceAmt) {
+        Account acct = new Account();
+        acct.setBalanceAmt(balanceAmt);
+        Customer cust = new Customer();
+        cust.setCustName(name);
+        cust.setEmail(name.toLowerCase() + "@example.com");
+        cust.setDob(new Date(0L));
+        cust.setAccounts(new ArrayList<>(Collections.singletonList(acct)));
+        return cust;
+    }
+
+    private void loadDataset() {
+        CustomerRepository customerRepo = bean(CustomerRepository.class);
+        AccountNumberAllocator allocator = bean(AccountNumberAllocator.class);
+        Random random = new Random(SEED);
+        accountNums = new long[CUSTOMERS];
+        List<Customer> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer cust = newCustomer(custName(random.nextInt(DISTINCT_NAMES)), 5000 + random.nextInt(4000));
+            accountNums[i] = allocator.next();
+            cust.getAccounts().get(0).setAccountNum(accountNums[i]);
+            chunk.add(cust);
+            if (chunk.size() == CHUNK || i == CUSTOMERS - 1) {
+                customerRepo.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    private static String custName(int n) {
+        return "Customer" + n;
+    }
+}
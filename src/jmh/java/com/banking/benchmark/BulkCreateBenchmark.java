@@ -0,0 +1,93 @@
+package com.banking.benchmark;
+
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import com.banking.service.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customer creation from 8 threads, one customer per request and 500 per {@code saveAll}, on the default
+ * in-memory setup and on the {@code production} profile with a file database in a fresh temporary directory.
+ * Each customer costs an id for itself and for its account, so this is where pooled-lo sequences, batched
+ * inserts and the pool settings show.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(8)
+public class BulkCreateBenchmark {
+
+    private static final int SAVE_ALL_SIZE = 500;
+
+    @State(Scope.Benchmark)
+    public static class ProfileState extends BankingState {
+
+        @Param({"default", "production"})
+        public String profile;
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            if (!"production".equals(profile)) {
+                return super.application();
+            }
+            try {
+                Path dir = Files.createTempDirectory("banking-benchmark");
+                return super.application().profiles(profile)
+                        .initializers(overriding("spring.datasource.url=jdbc:h2:file:" + dir.resolve("banking")
+                                + ";QUERY_CACHE_SIZE=256;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE"));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        // at thousands of customers a second the tables would outgrow the heap within the run
+        @Setup(Level.Iteration)
+        public void emptyTables() {
+            deleteCustomers();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Customer> createCustAcct(ProfileState state) throws BadRequestException {
+        return state.controller.createCustAcct(state.newCustomer("Created", 1000.0d), null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_ALL_SIZE)
+    public List<Customer> saveAll(ProfileState state) {
+        AccountNumberAllocator allocator = state.bean(AccountNumberAllocator.class);
+        List<Customer> customers = new ArrayList<>(SAVE_ALL_SIZE);
+        for (int i = 0; i < SAVE_ALL_SIZE; i++) {
+            Customer cust = state.newCustomer("Bulk", 1000.0d);
+            cust.getAccounts().get(0).setAccountNum(allocator.next());
+            customers.add(cust);
+        }
+        return state.bean(CustomerRepository.class).saveAll(customers);
+    }
+}
@@ -0,0 +1,64 @@
+package com.banking.benchmark;
+
+import com.banking.dto.AccountResponse;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        long accountNum;
+
+        @Setup(Level.Invocation)
+        public void createAccount(BankingState state) throws BadRequestException {
+            Customer cust = state.controller.createCustAcct(state.newCustomer("ToDelete", 1000.0d), null).getBody();
+            accountNum = cust.getAccounts().get(0).getAccountNum();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Account> deposit(BankingState state) throws BadRequestException {
+        return state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Account> withdraw(BankingState state) throws BadRequestException {
+        return state.controller.custAcctWithdraw(1.0d, state.randomAccountNum(), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Customer> create(BankingState state) throws BadRequestException {
+        return state.controller.createCustAcct(state.newCustomer("Created", 1000.0d), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<AccountResponse> lookup(BankingState state) {
+        return state.controller.getCustomer(state.randomAccountNum(), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Account> delete(BankingState state, DeleteTarget target) {
+        return state.controller.deleteCustAcct(target.accountNum);
+    }
+}
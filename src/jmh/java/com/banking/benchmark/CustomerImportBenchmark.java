@@ -0,0 +1,96 @@
+package com.banking.benchmark;
+
+import com.banking.dto.ImportResult;
+import com.banking.service.CustomerImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One import of a synthetic CSV of {@code -Dbanking.benchmark.import-rows} rows (1M by default, one in a thousand
+ * invalid) per invocation, timed as a single shot. The rows per second of each run are printed. The in-memory
+ * database keeps every imported row on the heap, so run it with {@code -gc} profiling to see the importer's own
+ * allocation rather than the heap size.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CustomerImportBenchmark {
+
+    static final int ROWS = Integer.getInteger("banking.benchmark.import-rows", 1_000_000);
+
+    @State(Scope.Benchmark)
+    public static class ImportState extends BankingState {
+
+        @Param({"1", "4", "8"})
+        public int workers;
+
+        Path csv;
+        Path rejectFile;
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            return super.application().initializers(overriding("banking.import.workers=" + workers));
+        }
+
+        @Setup(Level.Trial)
+        public void writeCsv() throws IOException {
+            csv = Files.createTempFile("customers", ".csv");
+            rejectFile = Files.createTempFile("customers", ".rejects.csv");
+            Random random = new Random(20230301L);
+            try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                out.write("custName,dob,email,initialDeposit");
+                out.newLine();
+                for (int i = 0; i < ROWS; i++) {
+                    String dob = i % 1000 == 999 ? "not-a-date" : String.format("19%02d-%02d-%02d", 40 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28));
+                    out.write("Partner Customer" + random.nextInt(DISTINCT_NAMES) + "," + dob + ",partner" + i + "@example.com," + (100 + random.nextInt(9000)));
+                    out.newLine();
+                }
+            }
+        }
+
+        // each invocation imports the same file again, into empty tables and with one import's worth of heap
+        @Setup(Level.Invocation)
+        public void emptyTables() {
+            deleteCustomers();
+        }
+
+        @TearDown(Level.Trial)
+        public void deleteCsv() throws IOException {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(rejectFile);
+        }
+    }
+
+    @Benchmark
+    public ImportResult importCsv(ImportState state) throws IOException {
+        try (InputStream in = Files.newInputStream(state.csv)) {
+            ImportResult result = state.bean(CustomerImportService.class).importCsv(in, state.rejectFile);
+            System.out.printf("%n%d workers: %d rows, %d imported, %d rejected, %d rows/s%n", state.workers,
+                    result.getRows(), result.getImported(), result.getRejected(), result.getRowsPerSecond());
+            return result;
+        }
+    }
+}
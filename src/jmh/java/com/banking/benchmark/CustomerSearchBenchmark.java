@@ -0,0 +1,71 @@
+package com.banking.benchmark;
+
+import com.banking.dto.CustomerSearchPage;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import com.banking.service.CustomerSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name lookups on the seeded dataset, meant to be run with {@code -Dbenchmark.customers=1000000}: the indexed
+ * prefix search, the exact match on the now indexed name, and a case-insensitive prefix match on the raw
+ * name, which has to scan every customer just like the exact match did before the index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    private CustomerSearchService searchService;
+    private CustomerRepository customerRepo;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp(BankingState state) {
+        searchService = state.bean(CustomerSearchService.class);
+        customerRepo = state.bean(CustomerRepository.class);
+        entityManager = state.bean(EntityManager.class);
+    }
+
+    @Benchmark
+    public CustomerSearchPage searchPrefix() throws BadRequestException {
+        return searchService.searchByName(randomPrefix(), LIMIT, null, null);
+    }
+
+    @Benchmark
+    public List<Customer> exactMatch(BankingState state) {
+        return customerRepo.findByCustName(state.randomCustName());
+    }
+
+    @Benchmark
+    public List<Customer> caseInsensitiveScan() {
+        return entityManager.createQuery("select c from Customer c where lower(c.custName) like :pattern order by c.custName", Customer.class)
+                .setParameter("pattern", randomPrefix() + "%")
+                .setMaxResults(LIMIT)
+                .getResultList();
+    }
+
+    private static String randomPrefix() {
+        return "customer" + ThreadLocalRandom.current().nextInt(100);
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.benchmark;
+
+import com.banking.dto.EndOfDayResult;
+import com.banking.service.EndOfDayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One end of day run over {@code -Dbanking.benchmark.eod-accounts} synthetic accounts (5M by default) per
+ * invocation, each for the next business date, timed as a single shot. The database is an H2 file under
+ * {@code target}, so the heap holds only the batch itself; the forked JVM gets 512 MB, and the accounts per
+ * second and the peak old generation of each run are printed.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class EndOfDayBenchmark {
+
+    static final int ACCOUNTS = Integer.getInteger("banking.benchmark.eod-accounts", 5_000_000);
+    private static final int INSERT_CHUNK = 500_000;
+    // above the allocator's range, so the synthetic accounts never clash with the BankingState dataset
+    private static final long FIRST_ACCOUNT_NUM = 100_000_000_000L;
+
+    @State(Scope.Benchmark)
+    public static class EndOfDayState extends BankingState {
+
+        @Param({"10000"})
+        public int chunkSize;
+
+        @Param({"1", "8"})
+        public int parallelism;
+
+        LocalDate businessDate = LocalDate.of(2026, 1, 1);
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            return super.application()
+                    .initializers(overriding("spring.datasource.url=jdbc:h2:file:./target/eod-benchmark",
+                            "spring.jpa.hibernate.ddl-auto=create",
+                            "banking.eod.chunk-size=" + chunkSize,
+                            "banking.eod.parallelism=" + parallelism));
+        }
+
+        @Setup(Level.Trial)
+        public void insertAccounts() {
+            JdbcTemplate jdbc = bean(JdbcTemplate.class);
+            for (int from = 1; from <= ACCOUNTS; from += INSERT_CHUNK) {
+                int to = Math.min(ACCOUNTS, from + INSERT_CHUNK - 1);
+                // acct_id far above the sequence; every 20th balance is under the Rs.100 minimum
+                jdbc.update("insert into account (acct_id, account_num, create_date, balance_paise, version, compacted_txn_id) " +
+                        "select 1000000000 + x, ? + x, current_timestamp, " +
+                        "case when mod(x, 20) = 0 then mod(x, 10000) else 10000 + mod(x * 7919, 10000000) end, 0, 0 " +
+                        "from system_range(?, ?)", FIRST_ACCOUNT_NUM, from, to);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void nextBusinessDate() {
+            businessDate = businessDate.plusDays(1);
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public EndOfDayResult endOfDay(EndOfDayState state) {
+        EndOfDayResult result = state.bean(EndOfDayService.class).run(state.businessDate);
+        long peakOldGen = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getName().contains("Old")) {
+                peakOldGen = Math.max(peakOldGen, pool.getPeakUsage().getUsed());
+            }
+        }
+        System.out.printf("%n%s, parallelism %d: %d accounts, %d fees, %d accounts/s, peak old gen %d MB%n", result.getBusinessDate(),
+                state.parallelism, result.getAccounts(), result.getFeesCharged(), result.getAccountsPerSecond(), peakOldGen >> 20);
+        return result;
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.benchmark;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation: the same calls with every meter enabled and with all of them filtered out.
+ * Run with the default {@code gc} profiler to compare the allocation per operation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MetricsState extends BankingState {
+
+        @Param({"true", "false"})
+        public boolean metrics;
+
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String baseUrl;
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            return super.application().initializers(overriding("management.metrics.enable.all=" + metrics, "banking.rate-limit.enabled=false"));
+        }
+
+        @Setup(Level.Trial)
+        public void resolvePort() {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/banking";
+        }
+    }
+
+    @Benchmark
+    public int httpDeposit(MetricsState state) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(state.baseUrl + "/deposit?depositAmount=1&accountNum=" + state.randomAccountNum()))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return state.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int httpLookup(MetricsState state) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(state.baseUrl + "/account?accountNum=" + state.randomAccountNum()))
+                .GET()
+                .build();
+        return state.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public ResponseEntity<Account> directDeposit(MetricsState state) throws BadRequestException {
+        return state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.banking.benchmark;
+
+import com.banking.entity.Account;
+import com.banking.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit plus withdraw arithmetic on the old boxed Double balance against long paise. Run with
+ * {@code -prof gc} to compare gc.alloc.rate.norm per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private Double boxedBalanceAmt = 1000.0d;
+    private final Account account = new Account();
+
+    @Setup
+    public void setUp() {
+        account.setBalancePaise(100000L);
+    }
+
+    @Benchmark
+    public Double boxedDouble() {
+        boxedBalanceAmt = boxedBalanceAmt + 1.0d;
+        if (!(1.0d > (boxedBalanceAmt * 90 / 100)) && !(100.0d > boxedBalanceAmt - 1.0d)) {
+            boxedBalanceAmt = boxedBalanceAmt - 1.0d;
+        }
+        return boxedBalanceAmt;
+    }
+
+    @Benchmark
+    public long paise() {
+        account.setBalancePaise(account.getBalancePaise() + 100L);
+        long balance = account.getBalancePaise();
+        if (!Money.exceedsPercentOf(100L, balance, 90) && balance - 100L >= 10000L) {
+            account.setBalancePaise(balance - 100L);
+        }
+        return account.getBalancePaise();
+    }
+}
@@ -0,0 +1,56 @@
+package com.banking.benchmark;
+
+import com.banking.exception.RateLimitException;
+import com.banking.service.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request limiter checks from 16 threads, without Spring: one client check and one account
+ * check, spread over {@code keys} distinct clients and accounts. With one key every thread contends on the same
+ * two buckets. The limits are high enough that every request is let through, so this is pure overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000", "1000000"})
+    public int keys;
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(1e12, Integer.MAX_VALUE, 1e12, Integer.MAX_VALUE, 100_000, 60);
+        clients = new String[Math.min(keys, 100_000)];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "key:client-" + i;
+        }
+    }
+
+    @Benchmark
+    public void checkClientAndAccount() throws RateLimitException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        rateLimiter.checkClient(clients[random.nextInt(clients.length)]);
+        rateLimiter.checkAccount(10_000_000_000L + random.nextInt(keys));
+    }
+}
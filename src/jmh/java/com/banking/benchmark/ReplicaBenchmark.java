@@ -0,0 +1,82 @@
+package com.banking.benchmark;
+
+import com.banking.dto.CustomerResponse;
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit latency from 4 writer threads while 60 reader threads list customers by name, with and without
+ * {@code banking.replica.enabled}. Each pool has 8 connections and every statement is delayed by
+ * {@code dbLatencyMs} while it holds its connection. On one database the writers queue behind the readers
+ * for a connection; with the replica the reads have their own pool and the {@code write} percentiles should
+ * stay close to a few times {@code dbLatencyMs}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ReplicaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ReplicaState extends BankingState {
+
+        @Param({"false", "true"})
+        public boolean replica;
+
+        @Param({"5"})
+        public long dbLatencyMs;
+
+        final SlowDatabase slowDatabase = new SlowDatabase();
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            return super.application()
+                    .initializers(overriding("banking.replica.enabled=" + replica,
+                            "spring.datasource.url=jdbc:h2:mem:benchmark-primary-" + replica + ";DB_CLOSE_DELAY=-1",
+                            "spring.datasource.hikari.maximum-pool-size=8",
+                            "banking.replica.url=jdbc:h2:mem:benchmark-replica;DB_CLOSE_DELAY=-1",
+                            "banking.replica.pool-size=8",
+                            "banking.rate-limit.enabled=false"))
+                    .initializers(context -> context.getBeanFactory().addBeanPostProcessor(slowDatabase));
+        }
+
+        @Setup(Level.Trial)
+        public void slowDownDatabase() {
+            slowDatabase.setLatencyMs(dbLatencyMs);
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(60)
+    public ResponseEntity<List<CustomerResponse>> read(ReplicaState state) {
+        return state.controller.getCustomerAcct(state.randomCustName(), null);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public ResponseEntity<Account> write(ReplicaState state) throws BadRequestException {
+        return state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null);
+    }
+}
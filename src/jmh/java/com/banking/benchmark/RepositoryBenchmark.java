@@ -0,0 +1,47 @@
+package com.banking.benchmark;
+
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private AccountRepository accountRepo;
+    private CustomerRepository customerRepo;
+
+    @Setup
+    public void setUp(BankingState state) {
+        accountRepo = state.bean(AccountRepository.class);
+        customerRepo = state.bean(CustomerRepository.class);
+    }
+
+    @Benchmark
+    public Account findByAccountNum(BankingState state) {
+        return accountRepo.findByAccountNum(state.randomAccountNum());
+    }
+
+    @Benchmark
+    public List<Customer> findByCustName(BankingState state) {
+        return customerRepo.findByCustName(state.randomCustName());
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.benchmark;
+
+import com.banking.dto.CustomerResponse;
+import com.banking.dto.FieldSelection;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the {@code /all-cust-accts} body for 1, 100 and 10,000 customers with two accounts each: the
+ * entities as the endpoint used to return them, the response DTOs, and the DTOs trimmed to
+ * {@code fields=custName,accounts.accountNum,accounts.balanceAmt}. The DTO cases include mapping from the entities.
+ * Run with {@code -prof gc} to compare gc.alloc.rate.norm per response; the payload size is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final FieldSelection TRIMMED = FieldSelection.parse("custName,accounts.accountNum,accounts.balanceAmt");
+
+    @Param({"1", "100", "10000"})
+    public int customers;
+
+    // the mapper MVC builds for its message converter
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Customer> entities;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        entities = new ArrayList<>(customers);
+        Timestamp created = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < customers; i++) {
+            List<Account> accounts = new ArrayList<>(2);
+            for (int j = 0; j < 2; j++) {
+                accounts.add(new Account(2L * i + j + 1, 10000000000L + 2L * i + j, created, 100000L + i, 0L, 0L));
+            }
+            Customer cust = new Customer();
+            cust.setCustId(i + 1L);
+            cust.setCustName("Customer " + i);
+            cust.setDob(java.sql.Date.valueOf("1990-01-15"));
+            cust.setEmail("customer" + i + "@example.com");
+            cust.setAccounts(accounts);
+            entities.add(cust);
+        }
+        System.out.printf("%n%d customers: entities %d bytes, dto %d bytes, trimmed dto %d bytes%n", customers,
+                entities().length, dto().length, trimmedDto().length);
+    }
+
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] dto() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(CustomerResponse.of(entities, FieldSelection.ALL));
+    }
+
+    @Benchmark
+    public byte[] trimmedDto() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(CustomerResponse.of(entities, TRIMMED));
+    }
+}
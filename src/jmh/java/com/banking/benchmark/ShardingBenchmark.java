@@ -0,0 +1,69 @@
+package com.banking.benchmark;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput from 64 threads on 1, 2, 4 and 8 shards. Each shard is its own in-memory H2 database
+ * with a pool of 8 connections, and every statement is delayed by {@code dbLatencyMs} while it holds its
+ * connection, so a single database saturates the way a remote one would. With the keys spread evenly,
+ * throughput should grow close to linearly until the 64 threads are the limit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(64)
+public class ShardingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ShardState extends BankingState {
+
+        @Param({"1", "2", "4", "8"})
+        public int shards;
+
+        @Param({"20"})
+        public long dbLatencyMs;
+
+        final SlowDatabase slowDatabase = new SlowDatabase();
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            return super.application()
+                    .initializers(overriding("banking.sharding.enabled=true",
+                            "banking.sharding.shards=" + shards,
+                            "banking.sharding.pool-size=8",
+                            "banking.sharding.url=jdbc:h2:mem:benchmark-" + shards + "-shard-{shard};DB_CLOSE_DELAY=-1",
+                            "banking.rate-limit.enabled=false"))
+                    .initializers(context -> context.getBeanFactory().addBeanPostProcessor(slowDatabase));
+        }
+
+        @Setup(Level.Trial)
+        public void slowDownDatabase() {
+            slowDatabase.setLatencyMs(dbLatencyMs);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Account> deposit(ShardState state) throws BadRequestException {
+        return state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null);
+    }
+}
@@ -0,0 +1,157 @@
+package com.banking.benchmark;
+
+import com.banking.BankingApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Time from launching a fresh JVM to the first successful {@code GET /banking/account}, on the default setup and
+ * on the {@code fast-start} profile, each with and without a class-data sharing archive. The archive is recorded
+ * once per trial by a training run on the same class path, as the {@code cds} Maven profile does for the jar.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "fast-start"})
+    public String profile;
+
+    @Param({"false", "true"})
+    public boolean cds;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private String classPath;
+    private Path archive;
+
+    @Setup
+    public void recordArchive() throws IOException, InterruptedException {
+        classPath = jarClassPath();
+        if (!cds) {
+            return;
+        }
+        archive = Files.createTempDirectory("banking-cds").resolve("banking.jsa");
+        Process training = launch("-XX:ArchiveClassesAtExit=" + archive, freePort(), "--banking.startup.training-run=true");
+        if (training.waitFor() != 0 || !Files.exists(archive)) {
+            throw new IllegalStateException("Training run exited with " + training.exitValue());
+        }
+    }
+
+    @Benchmark
+    public long timeToFirstLookup() throws IOException, InterruptedException {
+        int port = freePort();
+        Process app = launch(cds ? "-XX:SharedArchiveFile=" + archive : "-Xshare:auto", port);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/banking/account?accountNum=1")).build();
+            long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!app.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + app.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return port;
+                    }
+                } catch (IOException ex) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful account lookup within " + READY_TIMEOUT);
+        } finally {
+            app.destroy();
+            app.waitFor();
+        }
+    }
+
+    private Process launch(String jvmOption, int port, String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add(jvmOption);
+        command.add("-classpath");
+        command.add(classPath);
+        command.add(BankingApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+        if (!"default".equals(profile)) {
+            command.add("--spring.profiles.active=" + profile);
+        }
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    /**
+     * The class path of this JVM with every directory packed into a jar: class-data sharing only archives classes
+     * loaded from jar files and refuses to record an archive at all with a non-empty directory on the class path.
+     * Every setup launches from the jars, so the runs with and without an archive load the same files.
+     */
+    private static String jarClassPath() throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Paths.get(entry);
+            entries.add(Files.isDirectory(path) ? jar(path).toString() : entry);
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static Path jar(Path dir) throws IOException {
+        Path jar = Files.createTempFile("banking-" + dir.getFileName(), ".jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(file -> !file.equals(dir))::iterator) {
+                String name = dir.relativize(file).toString().replace(File.separatorChar, '/');
+                // component scanning finds packages through their directory entries
+                if (Files.isDirectory(file)) {
+                    out.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(file, out);
+                }
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.banking.benchmark;
+
+import com.banking.config.ExecutionMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test over HTTP with every SQL statement delayed by {@code dbLatencyMs}, comparing Tomcat's platform
+ * worker pool against a virtual thread per request. 400 concurrent clients are twice the default worker pool;
+ * the connection pool is sized so that it is not the limit. Throughput and the p99 of the sampled latencies
+ * are both reported.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(400)
+public class ThreadModeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ThreadModeState extends BankingState {
+
+        @Param({"PLATFORM", "VIRTUAL"})
+        public ExecutionMode mode;
+
+        @Param({"20"})
+        public long dbLatencyMs;
+
+        final SlowDatabase slowDatabase = new SlowDatabase();
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String baseUrl;
+
+        @Override
+        protected SpringApplicationBuilder application() {
+            return super.application()
+                    .initializers(overriding("banking.execution.mode=" + mode,
+                            "spring.datasource.hikari.maximum-pool-size=500",
+                            "banking.rate-limit.enabled=false"))
+                    .initializers(context -> context.getBeanFactory().addBeanPostProcessor(slowDatabase));
+        }
+
+        @Setup(Level.Trial)
+        public void slowDownDatabase() {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/banking";
+            slowDatabase.setLatencyMs(dbLatencyMs);
+        }
+    }
+
+    @Benchmark
+    public int deposit(ThreadModeState state) throws IOException, InterruptedException {
+        return put(state, "/deposit?depositAmount=1&accountNum=" + state.randomAccountNum());
+    }
+
+    @Benchmark
+    public int asyncDeposit(ThreadModeState state) throws IOException, InterruptedException {
+        return put(state, "/async/deposit?depositAmount=1&accountNum=" + state.randomAccountNum());
+    }
+
+    private static int put(ThreadModeState state, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(state.baseUrl + path))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return state.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
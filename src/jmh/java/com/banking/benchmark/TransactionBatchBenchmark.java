@@ -0,0 +1,50 @@
+package com.banking.benchmark;
+
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransactionResult;
+import com.banking.dto.TransactionType;
+import com.banking.exception.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits per second through /transactions/batch against the same deposits sent one call at a time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBatchBenchmark {
+
+    private static final int ITEMS = 1000;
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public List<TransactionResult> batch(BankingState state) throws BadRequestException {
+        List<TransactionRequest> transactions = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            transactions.add(new TransactionRequest(TransactionType.DEPOSIT, state.randomAccountNum(), 1.0d));
+        }
+        return state.controller.applyTransactionBatch(transactions).getBody();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void singleCalls(BankingState state, Blackhole blackhole) throws BadRequestException {
+        for (int i = 0; i < ITEMS; i++) {
+            blackhole.consume(state.controller.custAcctDeposit(1.0d, state.randomAccountNum(), null));
+        }
+    }
+}
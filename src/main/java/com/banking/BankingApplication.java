@@ -1,8 +1,16 @@
 package com.banking;
 
+import com.banking.dto.EndOfDayResult;
+import com.banking.dto.ImportResult;
+import com.banking.service.CustomerImportService;
+import com.banking.service.EndOfDayService;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,10 +21,73 @@ import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
 @SpringBootApplication
+@EnableScheduling
 public class BankingApplication {
 
+	private static final String IMPORT_ARG = "--import=";
+	private static final String END_OF_DAY_ARG = "--end-of-day=";
+
 	public static void main(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(IMPORT_ARG)) {
+				System.exit(importCustomers(Paths.get(arg.substring(IMPORT_ARG.length())), args));
+			}
+			if (arg.startsWith(END_OF_DAY_ARG)) {
+				System.exit(endOfDay(arg.substring(END_OF_DAY_ARG.length()), args));
+			}
+		}
 		SpringApplication.run(BankingApplication.class, args);
 	}
+
+	/**
+	 * Imports a customer CSV without starting the web server and writes the rejected rows next to it.
+	 * Exits with 0 when every row was imported, 2 when some were rejected and 1 when the import failed.
+	 */
+	static int importCustomers(Path csv, String[] args) {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args);
+			 InputStream in = Files.newInputStream(csv)) {
+			Path rejectFile = csv.resolveSibling(csv.getFileName() + ".rejects.csv");
+			ImportResult result = context.getBean(CustomerImportService.class).importCsv(in, rejectFile);
+			System.out.println(result);
+			return result.getRejected() == 0 ? 0 : 2;
+		} catch (IOException ex) {
+			System.err.println("Import of " + csv + " failed: " + ex);
+			return 1;
+		}
+	}
+
+	/**
+	 * Runs, or resumes, the end of day batch for a yyyy-MM-dd business date without starting the web server.
+	 * Exits with 0 when it finished and 1 when it failed; running it again picks up after the last committed chunk.
+	 */
+	static int endOfDay(String businessDate, String[] args) {
+		LocalDate date;
+		try {
+			date = LocalDate.parse(businessDate);
+		} catch (DateTimeParseException ex) {
+			System.err.println("Business date should be yyyy-MM-dd: " + businessDate);
+			return 1;
+		}
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args)) {
+			EndOfDayResult result = context.getBean(EndOfDayService.class).run(date);
+			System.out.println(result);
+			return 0;
+		} catch (RuntimeException ex) {
+			System.err.println("End of day " + date + " failed: " + ex);
+			return 1;
+		}
+	}
 }
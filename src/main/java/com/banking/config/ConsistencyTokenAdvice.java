@@ -0,0 +1,43 @@
+package com.banking.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Stamps the response to every request that may have written with a consistency token: the next
+ * {@link ReplicaRouting#nextPosition()}, taken when the response is written and so after the controller's
+ * transaction committed. Sending it back on later requests keeps their reads on the primary until the replica has
+ * caught up to it; see {@link ConsistencyTokenInterceptor}.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "banking.replica.enabled", havingValue = "true")
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ReplicaRouting replicaRouting;
+
+    public ConsistencyTokenAdvice(ReplicaRouting replicaRouting) {
+        this.replicaRouting = replicaRouting;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET) {
+            response.getHeaders().set(ReplicaRouting.TOKEN_HEADER, String.valueOf(replicaRouting.nextPosition()));
+        }
+        return body;
+    }
+}
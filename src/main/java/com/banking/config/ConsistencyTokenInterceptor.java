@@ -0,0 +1,52 @@
+package com.banking.config;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Reads the {@link ReplicaRouting#TOKEN_HEADER} a caller got back from its last write and keeps the reads of the
+ * request on the primary until the replica has that write. Tokens older than {@code banking.replica.token-ttl-ms}
+ * are ignored, as are tokens that do not parse; a token from the future counts as now. Reads made on another
+ * thread, such as by the async controller, do not see the token.
+ */
+public class ConsistencyTokenInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReplicaRouting replicaRouting;
+    private final long tokenTtlMs;
+
+    public ConsistencyTokenInterceptor(ReplicaRouting replicaRouting, long tokenTtlMs) {
+        this.replicaRouting = replicaRouting;
+        this.tokenTtlMs = tokenTtlMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String token = request.getHeader(ReplicaRouting.TOKEN_HEADER);
+        if (token == null || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        long nowMicros = System.currentTimeMillis() * 1000;
+        try {
+            long writtenAt = Math.min(Long.parseLong(token.trim()), nowMicros);
+            if (nowMicros - writtenAt <= tokenTtlMs * 1000) {
+                replicaRouting.readAfter(writtenAt);
+            }
+        } catch (NumberFormatException ex) {
+            // treated as no token
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        replicaRouting.clearReadAfter();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        replicaRouting.clearReadAfter();
+    }
+}
@@ -0,0 +1,54 @@
+package com.banking.config;
+
+import java.util.Arrays;
+
+/**
+ * Maps account numbers to shards on a hash ring with {@code virtualNodes} points per shard. Adding a shard
+ * moves only the keys that land on its points, about one in {@code shards + 1}, and leaves every other key
+ * where it was.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] owners;
+    private final int shardCount;
+
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("Need at least one shard and one virtual node, got " + shardCount + " and " + virtualNodes);
+        }
+        this.shardCount = shardCount;
+        long[][] ring = new long[shardCount * virtualNodes][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring[shard * virtualNodes + node] = new long[]{mix(((long) shard << 32 | node) + 0x9e3779b97f4a7c15L), shard};
+            }
+        }
+        Arrays.sort(ring, (a, b) -> Long.compare(a[0], b[0]));
+        points = new long[ring.length];
+        owners = new int[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            points[i] = ring[i][0];
+            owners[i] = (int) ring[i][1];
+        }
+    }
+
+    public int shardFor(long accountNum) {
+        int i = Arrays.binarySearch(points, mix(accountNum));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // SplitMix64 finalizer: account numbers are close together, their hashes must not be
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutionConfiguration {
+
+    /**
+     * Runs the {@code CompletableFuture} endpoints of {@link com.banking.controller.AsyncBankingController}.
+     */
+    @Bean
+    public ExecutorService requestExecutor(@Value("${banking.execution.mode:PLATFORM}") ExecutionMode mode,
+                                           @Value("${banking.execution.platform-threads:200}") int platformThreads) {
+        if (mode == ExecutionMode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, Thread.ofPlatform().name("request-", 0).factory());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "banking.execution.mode", havingValue = "VIRTUAL")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory()));
+    }
+}
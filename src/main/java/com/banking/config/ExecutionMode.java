@@ -0,0 +1,11 @@
+package com.banking.config;
+
+/**
+ * Threads that run request handling, and with it the JDBC calls, see {@link ExecutionConfiguration}.
+ */
+public enum ExecutionMode {
+    /** Tomcat's bounded worker pool and a fixed pool for the async endpoints. */
+    PLATFORM,
+    /** A new virtual thread per request and per async call; blocking JDBC only parks the virtual thread. */
+    VIRTUAL
+}
@@ -0,0 +1,27 @@
+package com.banking.config;
+
+import com.banking.service.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "banking.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+
+    private final RateLimiter rateLimiter;
+    private final String apiKeyHeader;
+
+    public RateLimitConfiguration(RateLimiter rateLimiter,
+                                  @Value("${banking.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, apiKeyHeader)).addPathPatterns("/banking/**");
+    }
+}
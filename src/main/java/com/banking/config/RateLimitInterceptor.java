@@ -0,0 +1,55 @@
+package com.banking.config;
+
+import com.banking.service.RateLimiter;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Charges every banking request to its client, the API key header or else the remote address, and to each
+ * account number among its parameters. A rejection is thrown before the controller runs, so a throttled
+ * request never reaches the database, and {@link com.banking.exception.BankingControllerAdvice} answers 429.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String[] ACCOUNT_PARAMS = {"accountNum", "fromAccountNum", "toAccountNum"};
+
+    private final RateLimiter rateLimiter;
+    private final String apiKeyHeader;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, String apiKeyHeader) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // the async endpoints are dispatched a second time to write their result, which is not a new request
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String apiKey = request.getHeader(apiKeyHeader);
+        rateLimiter.checkClient(apiKey != null ? "key:" + apiKey : "ip:" + request.getRemoteAddr());
+        for (String param : ACCOUNT_PARAMS) {
+            Long accountNum = parseAccountNum(request.getParameter(param));
+            if (accountNum != null) {
+                rateLimiter.checkAccount(accountNum);
+            }
+        }
+        return true;
+    }
+
+    // anything that is not a number is left to the controller to reject
+    private static Long parseAccountNum(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
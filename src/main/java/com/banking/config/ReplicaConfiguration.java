@@ -0,0 +1,87 @@
+package com.banking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a replica database, kept up to date by {@link ReplicaSync}, and the rest to
+ * the primary. Responses to writes carry a {@link ReplicaRouting#TOKEN_HEADER} that the caller sends back to read
+ * its own writes. Not meant to be combined with {@code banking.sharding.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.replica.enabled", havingValue = "true")
+public class ReplicaConfiguration implements WebMvcConfigurer {
+
+    private final ObjectProvider<ReplicaRouting> replicaRouting;
+    private final long tokenTtlMs;
+
+    public ReplicaConfiguration(ObjectProvider<ReplicaRouting> replicaRouting,
+                                @Value("${banking.replica.token-ttl-ms:5000}") long tokenTtlMs) {
+        this.replicaRouting = replicaRouting;
+        this.tokenTtlMs = tokenTtlMs;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouting replicaRouting(@Value("${spring.datasource.url:jdbc:h2:mem:testdb}") String primaryUrl,
+                                         @Value("${banking.replica.url:jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1}") String replicaUrl,
+                                         @Value("${banking.replica.pool-size:10}") int poolSize,
+                                         @Value("${spring.datasource.username:}") String username,
+                                         @Value("${spring.datasource.password:}") String password) {
+        return new ReplicaRouting(pool("primary", primaryUrl, poolSize, username, password),
+                pool("replica", replicaUrl, poolSize, username, password));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouting replicaRouting) {
+        return replicaRouting.dataSource();
+    }
+
+    @Bean
+    public ReplicaSync replicaSync(ReplicaRouting replicaRouting) {
+        return new ReplicaSync(replicaRouting);
+    }
+
+    @Bean
+    public SmartInitializingSingleton replicaSchema(ReplicaSync replicaSync, EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            // waits for a background JPA bootstrap to create the primary schema
+            entityManagerFactory.getMetamodel();
+            try {
+                replicaSync.copySchema();
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Could not create the replica schema", ex);
+            }
+            replicaSync.sync();
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConsistencyTokenInterceptor(replicaRouting.getObject(), tokenTtlMs)).addPathPatterns("/banking/**");
+    }
+
+    private static HikariDataSource pool(String name, String url, int poolSize, String username, String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(poolSize);
+        return dataSource;
+    }
+}
@@ -0,0 +1,115 @@
+package com.banking.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. A caller that has just written
+ * passes the consistency token it got back and its reads stay on the primary until the replica has caught up to
+ * it. Tokens and replica positions come from one {@link #nextPosition()} sequence, so two of them are never equal
+ * and a write stamped before a sync pass started is always below the position that pass reports. Connections
+ * are taken when the first statement runs, after the transaction has been marked read-only.
+ */
+public class ReplicaRouting implements Closeable {
+
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final DataSource dataSource;
+    private final ThreadLocal<Long> readAfter = new ThreadLocal<>();
+    private final AtomicLong lastPosition = new AtomicLong();
+    private volatile long replicatedUpTo;
+
+    public ReplicaRouting(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        RoutingDataSource routing = new RoutingDataSource();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        this.dataSource = new LazyConnectionDataSourceProxy(routing);
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    public DataSource replica() {
+        return replica;
+    }
+
+    /**
+     * The next value of a strictly increasing sequence of epoch microseconds, moved past the previous value when
+     * the clock has not: tokens for writes and the positions of sync passes.
+     */
+    public long nextPosition() {
+        long nowMicros = System.currentTimeMillis() * 1000;
+        return lastPosition.updateAndGet(last -> Math.max(last + 1, nowMicros));
+    }
+
+    /**
+     * Every write whose token is below {@code position}, a value from {@link #nextPosition()} taken before the
+     * primary was read, is now on the replica.
+     */
+    public void replicated(long position) {
+        replicatedUpTo = position;
+    }
+
+    public long replicatedUpTo() {
+        return replicatedUpTo;
+    }
+
+    /**
+     * Keeps the reads of the current thread on the primary until the replica has every write up to {@code token}.
+     */
+    public void readAfter(long token) {
+        readAfter.set(token);
+    }
+
+    public void clearReadAfter() {
+        readAfter.remove();
+    }
+
+    boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicatedUpTo == 0) {
+            return false;
+        }
+        Long token = readAfter.get();
+        return token == null || token < replicatedUpTo;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource pool : new DataSource[]{primary, replica}) {
+            if (pool instanceof Closeable) {
+                ((Closeable) pool).close();
+            }
+        }
+    }
+
+    private class RoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return useReplica() ? REPLICA : PRIMARY;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.banking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for database replication between two H2 databases: copies the schema once, then every
+ * {@code banking.replica.sync-interval-ms} replaces the replicated tables on the replica with a fresh copy
+ * from the primary in one transaction. The tables are read in one snapshot transaction on the primary, so a
+ * pass is a consistent copy as of its first read. Each pass reads the whole tables, which is fine for tests and
+ * benchmarks but not for a large database; a real deployment would use the database's own replication and
+ * report its replay position instead.
+ */
+public class ReplicaSync {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSync.class);
+
+    // parents first; the replica does not check foreign keys, since the tables are inserted one after another
+    private static final String[] TABLES = {"customer", "account", "account_transaction"};
+    private static final int BATCH_SIZE = 1000;
+    // H2's JDBC value for SNAPSHOT isolation: every read of the transaction sees the data as of its first read
+    private static final int H2_TRANSACTION_SNAPSHOT = 6;
+
+    private final ReplicaRouting routing;
+
+    public ReplicaSync(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    void copySchema() throws SQLException {
+        try (Connection primary = routing.primary().getConnection();
+             Connection replica = routing.replica().getConnection();
+             Statement source = primary.createStatement();
+             Statement target = replica.createStatement();
+             ResultSet script = source.executeQuery("script nodata nopasswords nosettings drop")) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.regionMatches(true, 0, "CREATE USER", 0, 11)) {
+                    target.execute(sql);
+                }
+            }
+            target.execute("set referential_integrity false");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${banking.replica.sync-interval-ms:100}", fixedDelayString = "${banking.replica.sync-interval-ms:100}")
+    public void sync() {
+        // taken before the snapshot, so every token below it belongs to a write the snapshot sees
+        long position = routing.nextPosition();
+        try (Connection primary = routing.primary().getConnection();
+             Connection replica = routing.replica().getConnection()) {
+            int isolation = primary.getTransactionIsolation();
+            primary.setTransactionIsolation(H2_TRANSACTION_SNAPSHOT);
+            primary.setAutoCommit(false);
+            replica.setAutoCommit(false);
+            try {
+                for (int i = TABLES.length - 1; i >= 0; i--) {
+                    try (Statement delete = replica.createStatement()) {
+                        delete.executeUpdate("delete from " + TABLES[i]);
+                    }
+                }
+                for (String table : TABLES) {
+                    copy(primary, replica, table);
+                }
+                replica.commit();
+            } catch (SQLException | RuntimeException ex) {
+                replica.rollback();
+                throw ex;
+            } finally {
+                primary.rollback();
+                primary.setAutoCommit(true);
+                primary.setTransactionIsolation(isolation);
+                replica.setAutoCommit(true);
+            }
+            routing.replicated(position);
+        } catch (SQLException ex) {
+            log.warn("Replica sync failed, replica stays at {}", routing.replicatedUpTo(), ex);
+        }
+    }
+
+    private static void copy(Connection primary, Connection replica, String table) throws SQLException {
+        try (Statement select = primary.createStatement();
+             ResultSet rows = select.executeQuery("select * from " + table)) {
+            ResultSetMetaData meta = rows.getMetaData();
+            int columns = meta.getColumnCount();
+            List<String> names = new ArrayList<>(columns);
+            List<String> params = new ArrayList<>(columns);
+            for (int c = 1; c <= columns; c++) {
+                names.add(meta.getColumnName(c));
+                params.add("?");
+            }
+            String insert = "insert into " + table + " (" + String.join(",", names) + ") values (" + String.join(",", params) + ")";
+            try (PreparedStatement statement = replica.prepareStatement(insert)) {
+                int batched = 0;
+                while (rows.next()) {
+                    for (int c = 1; c <= columns; c++) {
+                        statement.setObject(c, rows.getObject(c));
+                    }
+                    statement.addBatch();
+                    if (++batched == BATCH_SIZE) {
+                        statement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.banking.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shard databases and which one the current thread uses. Repository calls pick the shard with
+ * {@link #callOn(int, ShardCall)}; a transaction stays on the shard of its first routed call, and a routed call
+ * for another shard inside it fails rather than silently reading or writing the wrong database. Connections
+ * are only taken from a shard when the first statement runs, so a transaction can begin before its shard is
+ * known. Code that never names a shard, such as the idempotency records and account number blocks, uses shard 0.
+ */
+public class ShardRouting implements Closeable {
+
+    private static final Object TRANSACTION_SHARD = new Object();
+
+    private final List<DataSource> shards;
+    private final ConsistentHashRing ring;
+    private final ThreadLocal<Integer> current = new ThreadLocal<>();
+    private final DataSource dataSource;
+    private final ExecutorService scatterPool;
+
+    public ShardRouting(List<DataSource> shards, int virtualNodes) {
+        this.shards = shards;
+        this.ring = new ConsistentHashRing(shards.size(), virtualNodes);
+        RoutingDataSource routing = new RoutingDataSource();
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shards.get(0));
+        routing.afterPropertiesSet();
+        this.dataSource = new LazyConnectionDataSourceProxy(routing);
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterPool = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The data source for the entity manager: routes each connection to the shard of the current call.
+     */
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardFor(long accountNum) {
+        return ring.shardFor(accountNum);
+    }
+
+    ExecutorService scatterPool() {
+        return scatterPool;
+    }
+
+    public <T> T callOn(int shard, ShardCall<T> call) throws Throwable {
+        bindToTransaction(shard);
+        Integer previous = current.get();
+        current.set(shard);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * The shard the transaction of the current thread has been routed to, or null outside a routed transaction.
+     */
+    Integer transactionShard() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_SHARD) : null;
+    }
+
+    private void bindToTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Integer bound = transactionShard();
+        if (bound == null) {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SHARD, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SHARD);
+                }
+            });
+        } else if (bound != shard) {
+            throw new IllegalStateException("A transaction on shard " + bound + " cannot also use shard " + shard);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        scatterPool.shutdownNow();
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable) {
+                ((Closeable) shard).close();
+            }
+        }
+    }
+
+    public interface ShardCall<T> {
+        T call() throws Throwable;
+    }
+
+    private class RoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            Integer shard = current.get();
+            return shard != null ? shard : transactionShard();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.banking.config;
+
+import com.banking.entity.Account;
+import com.banking.entity.AccountTransaction;
+import com.banking.entity.Customer;
+import com.banking.repository.ScatterGather;
+import com.banking.repository.ShardKey;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends each call on a repository to the shard of its account number: the {@link ShardKey} parameter, else the
+ * account of the entity or entities passed in (a customer goes with its first account). A collection of keys is
+ * split per shard and the results joined, as are {@link ScatterGather} queries. A call without a key joins the
+ * shard of the surrounding transaction, and fails outside one. Sits in front of the repository's own
+ * transaction handling, so a call that spans shards gets one transaction per shard.
+ */
+class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final int NO_KEY = -1;
+
+    private final ShardRouting routing;
+    private final Object repository;
+    private final Map<Method, Integer> keyParameters = new ConcurrentHashMap<>();
+
+    ShardRoutingInterceptor(ShardRouting routing, Object repository) {
+        this.routing = routing;
+        this.repository = repository;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Object[] args = invocation.getArguments();
+        if (!Repository.class.isAssignableFrom(method.getDeclaringClass())) {
+            return invocation.proceed();
+        }
+        int declaredKey = keyParameters.computeIfAbsent(method, ShardRoutingInterceptor::keyParameter);
+        int keyIndex = declaredKey != NO_KEY ? declaredKey : entityParameter(args);
+        if (keyIndex == NO_KEY) {
+            if (method.isAnnotationPresent(ScatterGather.class)) {
+                Map<Integer, Object[]> everyShard = new TreeMap<>();
+                for (int shard = 0; shard < routing.shardCount(); shard++) {
+                    everyShard.put(shard, args);
+                }
+                return onShards(method, everyShard);
+            }
+            if (routing.transactionShard() == null) {
+                throw new UnsupportedOperationException(method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                        + " has no shard key and is not supported on sharded storage outside a routed transaction");
+            }
+            return invocation.proceed();
+        }
+        Object key = args[keyIndex];
+        if (!(key instanceof Iterable)) {
+            return routing.callOn(routing.shardFor(shardKeyOf(key)), invocation::proceed);
+        }
+        Map<Integer, Object[]> byShard = new TreeMap<>();
+        for (Object element : (Iterable<?>) key) {
+            Object[] shardArgs = byShard.computeIfAbsent(routing.shardFor(shardKeyOf(element)), shard -> {
+                Object[] copy = args.clone();
+                copy[keyIndex] = new ArrayList<>();
+                return copy;
+            });
+            ((List<Object>) shardArgs[keyIndex]).add(element);
+        }
+        if (byShard.size() <= 1) {
+            return byShard.isEmpty() ? invocation.proceed()
+                    : routing.callOn(byShard.keySet().iterator().next(), invocation::proceed);
+        }
+        return onShards(method, byShard);
+    }
+
+    private Object onShards(Method method, Map<Integer, Object[]> argsByShard) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(method.getName() + " needs shards " + argsByShard.keySet() + " inside one transaction");
+        }
+        List<CompletableFuture<Object>> results = new ArrayList<>(argsByShard.size());
+        for (Map.Entry<Integer, Object[]> shardArgs : argsByShard.entrySet()) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return routing.callOn(shardArgs.getKey(), () -> AopUtils.invokeJoinpointUsingReflection(repository, method, shardArgs.getValue()));
+                } catch (Throwable ex) {
+                    throw new CompletionException(ex);
+                }
+            }, routing.scatterPool()));
+        }
+        try {
+            return merge(method, results);
+        } catch (CompletionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static Object merge(Method method, List<CompletableFuture<Object>> results) {
+        Class<?> type = method.getReturnType();
+        if (List.class.isAssignableFrom(type)) {
+            List<Object> merged = new ArrayList<>();
+            for (CompletableFuture<Object> result : results) {
+                merged.addAll((List<?>) result.join());
+            }
+            return merged;
+        }
+        if (type == int.class || type == Integer.class) {
+            int sum = 0;
+            for (CompletableFuture<Object> result : results) {
+                sum += (Integer) result.join();
+            }
+            return sum;
+        }
+        if (type == long.class || type == Long.class) {
+            long sum = 0;
+            for (CompletableFuture<Object> result : results) {
+                sum += (Long) result.join();
+            }
+            return sum;
+        }
+        if (type == void.class) {
+            results.forEach(CompletableFuture::join);
+            return null;
+        }
+        throw new UnsupportedOperationException("Cannot join the " + type.getSimpleName() + " results of " + method.getName() + " across shards");
+    }
+
+    private static int keyParameter(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return i;
+                }
+            }
+        }
+        return NO_KEY;
+    }
+
+    private static int entityParameter(Object[] args) {
+        if (args == null) {
+            return NO_KEY;
+        }
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof Iterable) {
+                Iterator<?> elements = ((Iterable<?>) arg).iterator();
+                arg = elements.hasNext() ? elements.next() : null;
+            }
+            if (arg instanceof Account || arg instanceof AccountTransaction || arg instanceof Customer) {
+                return i;
+            }
+        }
+        return NO_KEY;
+    }
+
+    private static long shardKeyOf(Object key) {
+        Long accountNum = null;
+        if (key instanceof Long) {
+            accountNum = (Long) key;
+        } else if (key instanceof Account) {
+            accountNum = ((Account) key).getAccountNum();
+        } else if (key instanceof AccountTransaction) {
+            accountNum = ((AccountTransaction) key).getAccountNum();
+        } else if (key instanceof Customer) {
+            List<Account> accounts = ((Customer) key).getAccounts();
+            accountNum = accounts == null || accounts.isEmpty() ? null : accounts.get(0).getAccountNum();
+        }
+        if (accountNum == null) {
+            throw new IllegalArgumentException("No account number to pick a shard for " + key);
+        }
+        return accountNum;
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+
+/**
+ * Hibernate only creates the schema through the connection it is given, which is shard 0. This keeps the mapping
+ * Hibernate was built with and brings every shard up to it. Each shard's id sequences start at
+ * {@code shard << 40}, so customer ids stay unique across shards.
+ */
+class ShardSchemaInitializer implements Integrator {
+
+    static final int SEQUENCE_SHARD_BITS = 40;
+
+    private volatile Metadata metadata;
+    private volatile SessionFactoryServiceRegistry serviceRegistry;
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = metadata;
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.serviceRegistry = null;
+    }
+
+    void initialize(ShardRouting routing) throws Throwable {
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate has not been bootstrapped with the shard schema initializer");
+        }
+        Dialect dialect = serviceRegistry.getService(JdbcServices.class).getDialect();
+        for (int shard = 0; shard < routing.shardCount(); shard++) {
+            routing.callOn(shard, () -> {
+                new SchemaUpdate().setHaltOnError(true).execute(EnumSet.of(TargetType.DATABASE), metadata, serviceRegistry);
+                return null;
+            });
+            if (shard > 0) {
+                offsetSequences(routing, shard, dialect);
+            }
+        }
+    }
+
+    private void offsetSequences(ShardRouting routing, int shard, Dialect dialect) throws SQLException {
+        long base = (long) shard << SEQUENCE_SHARD_BITS;
+        try (Connection con = routing.shard(shard).getConnection(); Statement statement = con.createStatement()) {
+            for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+                for (Sequence sequence : namespace.getSequences()) {
+                    String name = sequence.getName().getSequenceName().render(dialect);
+                    long next;
+                    try (ResultSet rs = statement.executeQuery(dialect.getSequenceNextValString(name))) {
+                        rs.next();
+                        next = rs.getLong(1);
+                    }
+                    if (next < base) {
+                        statement.execute("alter sequence " + name + " restart with " + base);
+                    }
+                }
+            }
+        }
+    }
+}
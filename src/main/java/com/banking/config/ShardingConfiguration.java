@@ -0,0 +1,102 @@
+package com.banking.config;
+
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import com.banking.repository.CustomerRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Spreads accounts, their customers and their ledger entries over {@code banking.sharding.shards} databases by
+ * account number. Everything else stays on shard 0.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.sharding.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ShardRouting shardRouting(@Value("${banking.sharding.shards:4}") int shards,
+                                     @Value("${banking.sharding.url:jdbc:h2:mem:shard-{shard};DB_CLOSE_DELAY=-1}") String url,
+                                     @Value("${banking.sharding.pool-size:10}") int poolSize,
+                                     @Value("${banking.sharding.virtual-nodes:128}") int virtualNodes,
+                                     @Value("${spring.datasource.username:}") String username,
+                                     @Value("${spring.datasource.password:}") String password) {
+        List<DataSource> dataSources = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url.replace("{shard}", String.valueOf(shard)))
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+        }
+        return new ShardRouting(dataSources, virtualNodes);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRouting shardRouting) {
+        return shardRouting.dataSource();
+    }
+
+    @Bean
+    public static BeanPostProcessor shardRoutedRepositories(ObjectProvider<ShardRouting> shardRouting) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AccountRepository || bean instanceof CustomerRepository || bean instanceof AccountTransactionRepository) {
+                    ProxyFactory proxy = new ProxyFactory(bean);
+                    proxy.addAdvice(new ShardRoutingInterceptor(shardRouting.getObject(), bean));
+                    return proxy.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer() {
+        return new ShardSchemaInitializer();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCapture(ShardSchemaInitializer shardSchemaInitializer) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> Collections.singletonList(shardSchemaInitializer));
+    }
+
+    @Bean
+    public SmartInitializingSingleton shardSchemas(ShardSchemaInitializer shardSchemaInitializer, ShardRouting shardRouting,
+                                                   EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            // waits for a background JPA bootstrap to finish
+            entityManagerFactory.getMetamodel();
+            try {
+                shardSchemaInitializer.initialize(shardRouting);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Could not create the shard schemas", ex);
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.config;
+
+import com.banking.service.EndOfDayJob;
+import com.banking.service.IdempotencyService;
+import com.banking.service.LedgerCompactionJob;
+import com.banking.service.WriteBehindDepositService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+@Configuration
+public class StartupConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConfiguration.class);
+
+    /**
+     * Beans that work on a schedule or replay state at startup rather than when a request needs them, so
+     * {@code spring.main.lazy-initialization} must still create them eagerly.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter backgroundBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(LedgerCompactionJob.class, WriteBehindDepositService.class,
+                IdempotencyService.class, ReplicaSync.class, EndOfDayJob.class);
+    }
+
+    /**
+     * With {@code banking.startup.training-run=true} the application makes one account lookup against itself once
+     * it is ready, so the request path is loaded as well, and exits. Run under
+     * {@code -XX:ArchiveClassesAtExit} this records the class-data sharing archive; see the {@code cds} Maven profile.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "banking.startup.training-run", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> trainingRun() {
+        return event -> {
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            int port = context.getEnvironment().getProperty("local.server.port", Integer.class, 8080);
+            int exitCode = lookupAccount(port) ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        };
+    }
+
+    private static boolean lookupAccount(int port) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/banking/account?accountNum=1")).build();
+        try {
+            int status = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            log.info("Training run account lookup returned {}", status);
+            return status == 200;
+        } catch (IOException ex) {
+            log.warn("Training run account lookup failed", ex);
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Spring MVC as the application has always configured it, kept apart from {@link SwaggerConfiguration} so the
+ * responses stay the same when Swagger is switched off.
+ */
+@Configuration
+@EnableWebMvc
+public class WebMvcConfiguration {
+}
@@ -0,0 +1,93 @@
+package com.banking.controller;
+
+import com.banking.dto.AccountResponse;
+import com.banking.dto.CustomerResponse;
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransactionResult;
+import com.banking.dto.TransferResult;
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import com.banking.service.IdempotencyService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * The hot {@link BankingController} endpoints on the async servlet path: the container thread is released as
+ * soon as the call is handed to the request executor, and the response is written when the future completes.
+ */
+@RestController
+@RequestMapping("/banking/async")
+public class AsyncBankingController {
+
+    @Autowired
+    private BankingController bankingController;
+
+    @Autowired
+    @Qualifier("requestExecutor")
+    private Executor requestExecutor;
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "lookup"}, histogram = true)
+    @GetMapping("/account")
+    public CompletableFuture<ResponseEntity<AccountResponse>> getCustomer(@RequestParam("accountNum") Long account,
+                                                                          @RequestParam(value = "fields", required = false) String fields) {
+        return async(() -> bankingController.getCustomer(account, fields));
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "list"}, histogram = true)
+    @GetMapping("/cust-accounts")
+    public CompletableFuture<ResponseEntity<List<CustomerResponse>>> getCustomerAcct(@RequestParam("customerName") String customerName,
+                                                                                     @RequestParam(value = "fields", required = false) String fields) {
+        return async(() -> bankingController.getCustomerAcct(customerName, fields));
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "withdraw"}, histogram = true)
+    @PutMapping("/withdraw")
+    public CompletableFuture<ResponseEntity<Account>> custAcctWithdraw(@RequestParam("withdrawAmount") double withdrawAmount, @RequestParam("accountNum") Long accountNum,
+                                                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return async(() -> bankingController.custAcctWithdraw(withdrawAmount, accountNum, idempotencyKey));
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "deposit"}, histogram = true)
+    @PutMapping("/deposit")
+    public CompletableFuture<ResponseEntity<Account>> custAcctDeposit(@RequestParam("depositAmount") double depositAmount, @RequestParam("accountNum") Long accountNum,
+                                                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return async(() -> bankingController.custAcctDeposit(depositAmount, accountNum, idempotencyKey));
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "transfer"}, histogram = true)
+    @PutMapping("/transfer")
+    public CompletableFuture<ResponseEntity<TransferResult>> transfer(@RequestParam("fromAccountNum") Long fromAccountNum, @RequestParam("toAccountNum") Long toAccountNum,
+                                                                      @RequestParam("amount") double amount,
+                                                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return async(() -> bankingController.transfer(fromAccountNum, toAccountNum, amount, idempotencyKey));
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "batch"}, histogram = true)
+    @PostMapping("/transactions/batch")
+    public CompletableFuture<ResponseEntity<List<TransactionResult>>> applyTransactionBatch(@RequestBody List<TransactionRequest> transactions) {
+        return async(() -> bankingController.applyTransactionBatch(transactions));
+    }
+
+    // Spring unwraps the CompletionException, so BankingControllerAdvice still maps the BadRequestException.
+    private <T> CompletableFuture<T> async(Call<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.run();
+            } catch (BadRequestException ex) {
+                throw new CompletionException(ex);
+            }
+        }, requestExecutor);
+    }
+
+    private interface Call<T> {
+        T run() throws BadRequestException;
+    }
+}
@@ -1,18 +1,46 @@
 package com.banking.controller;
 
+import com.banking.dto.AccountResponse;
+import com.banking.dto.CustomerPage;
+import com.banking.dto.CustomerResponse;
+import com.banking.dto.CustomerSearchPage;
+import com.banking.dto.CustomerSummary;
+import com.banking.dto.FieldSelection;
+import com.banking.dto.ImportResult;
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransactionResult;
+import com.banking.dto.TransferResult;
 import com.banking.entity.Account;
+import com.banking.entity.AccountTransaction;
 import com.banking.entity.Customer;
+import com.banking.entity.Money;
 import com.banking.exception.BadRequestException;
 import com.banking.repository.AccountRepository;
 import com.banking.repository.CustomerRepository;
+import com.banking.service.AccountBalanceService;
+import com.banking.service.AccountCache;
+import com.banking.service.AccountNumberAllocator;
+import com.banking.service.CustomerExportService;
+import com.banking.service.CustomerImportService;
+import com.banking.service.CustomerSearchService;
+import com.banking.service.CustomerUpdateService;
+import com.banking.service.IdempotencyService;
+import com.banking.service.LedgerService;
+import com.banking.service.TransactionBatchService;
+import com.banking.service.WriteBehindDepositService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/banking")
@@ -24,85 +52,243 @@ public class BankingController {
     @Autowired
     private AccountRepository accountRepo;
 
-    private static double depositLimit = 10000.0d;
-    private static double minBalInAcc = 100.0d;
+    @Autowired
+    private AccountBalanceService balanceService;
+
+    @Autowired
+    private TransactionBatchService batchService;
+
+    @Autowired
+    private CustomerExportService exportService;
+
+    @Autowired
+    private CustomerSearchService searchService;
+
+    @Autowired
+    private CustomerImportService importService;
+
+    @Autowired
+    private CustomerUpdateService updateService;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private LedgerService ledgerService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired(required = false)
+    private WriteBehindDepositService writeBehindDeposits;
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "lookup"}, histogram = true)
     @GetMapping("/account")
-    public ResponseEntity<Account> getCustomer(@RequestParam("accountNum") Long account) {
-        Account response = accountRepo.findByAccountNum(account);
+    public ResponseEntity<AccountResponse> getCustomer(@RequestParam("accountNum") Long account,
+                                                       @RequestParam(value = "fields", required = false) String fields) {
+        Account acct = accountCache.get(account);
+        AccountResponse response = acct == null ? null : AccountResponse.of(acct, FieldSelection.parse(fields));
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/account-cache/stats")
+    public ResponseEntity<Map<String, Number>> getAccountCacheStats() {
+        return ResponseEntity.ok(accountCache.stats());
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "list"}, histogram = true)
     @GetMapping("/all-cust-accts")
-    public ResponseEntity<List<Customer>> getAllCustomerAccts() {
+    public ResponseEntity<List<CustomerResponse>> getAllCustomerAccts(@RequestParam(value = "fields", required = false) String fields) {
         List<Customer> custAccts = customerRepo.findAll();
-        return ResponseEntity.ok(custAccts);
+        return ResponseEntity.ok(CustomerResponse.of(custAccts, FieldSelection.parse(fields)));
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "list"}, histogram = true)
+    @GetMapping("/all-cust-accts/page")
+    public ResponseEntity<CustomerPage> getCustomerAcctsPage(@RequestParam(value = "afterCustId", defaultValue = "0") Long afterCustId,
+                                                             @RequestParam(value = "size", defaultValue = "100") int size) throws BadRequestException {
+        CustomerPage response = exportService.page(afterCustId, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "list"}, histogram = true)
+    @GetMapping("/customers")
+    public ResponseEntity<List<CustomerSummary>> getCustomerSummaries(@RequestParam(value = "afterCustId", defaultValue = "0") Long afterCustId,
+                                                                      @RequestParam(value = "size", defaultValue = "100") int size) throws BadRequestException {
+        List<CustomerSummary> response = exportService.summaries(afterCustId, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "search"}, histogram = true)
+    @GetMapping("/customers/search")
+    public ResponseEntity<CustomerSearchPage> searchCustomers(@RequestParam("name") String name,
+                                                              @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                              @RequestParam(value = "afterName", required = false) String afterName,
+                                                              @RequestParam(value = "afterCustId", required = false) Long afterCustId) throws BadRequestException {
+        CustomerSearchPage response = searchService.searchByName(name, limit, afterName, afterCustId);
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "list"}, histogram = true)
+    @GetMapping(value = "/all-cust-accts/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCustomerAccts() {
+        StreamingResponseBody response = exportService::writeNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(response);
     }
 
+    @Timed(value = "banking.operation", extraTags = {"operation", "list"}, histogram = true)
     @GetMapping("/cust-accounts")
-    public ResponseEntity<List<Customer>> getCustomerAcct(@RequestParam("customerName") String customerName) {
+    public ResponseEntity<List<CustomerResponse>> getCustomerAcct(@RequestParam("customerName") String customerName,
+                                                                  @RequestParam(value = "fields", required = false) String fields) {
         List<Customer> custAccts = customerRepo.findByCustName(customerName);
-        return ResponseEntity.ok(custAccts);
+        return ResponseEntity.ok(CustomerResponse.of(custAccts, FieldSelection.parse(fields)));
     }
 
+    @Timed(value = "banking.operation", extraTags = {"operation", "create"}, histogram = true)
     @PostMapping("/account")
-    public ResponseEntity<Customer> createCustAcct(@RequestBody @Validated Customer customer) throws BadRequestException {
-        if(depositLimit < customer.getAccounts().get(0).getBalanceAmt()) {
-            throw new BadRequestException("Deposit amount should be less than Rs.10000.0 per transaction.", HttpStatus.BAD_REQUEST);
+    public ResponseEntity<Customer> createCustAcct(@RequestBody @Validated Customer customer,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) throws BadRequestException {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, () -> createFingerprint(customer), Customer.class, () -> create(customer));
         }
-        customer.getAccounts().get(0).setAccountNum(generateUUIDNo());
+        return create(customer);
+    }
+
+    private ResponseEntity<Customer> create(Customer customer) throws BadRequestException {
+        AccountBalanceService.checkDepositLimit(customer.getAccounts().get(0).getBalancePaise());
+        customer.getAccounts().get(0).setAccountNum(accountNumberAllocator.next());
         Customer response = customerRepo.save(customer);
         return ResponseEntity.ok(response);
     }
 
+    @Timed(value = "banking.operation", extraTags = {"operation", "import"}, histogram = true)
+    @PostMapping(value = "/customers/import", consumes = "text/csv")
+    public ResponseEntity<ImportResult> importCustomers(InputStream csv) throws IOException {
+        ImportResult response = importService.importCsv(csv, importService.newRejectFile());
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "withdraw"}, histogram = true)
     @PutMapping("/withdraw")
-    public ResponseEntity<Account> custAcctWithdraw(@RequestParam("withdrawAmount") double withdrawAmount, @RequestParam("accountNum") Long accountNum) throws BadRequestException {
-        Account acct = accountRepo.findByAccountNum(accountNum);
-        if(minBalInAcc > (acct.getBalanceAmt() - withdrawAmount) ) {
-            throw new BadRequestException("Account balance should not be less than Rs.100.0. Please withdraw lesser amount.", HttpStatus.BAD_REQUEST);
-        }
-        if(withdrawAmount > (acct.getBalanceAmt() * 90/100) ) {
-            throw new BadRequestException("Cannot withdraw more than 90% of balance amount from the account. Please withdraw lesser amount.", HttpStatus.BAD_REQUEST);
+    public ResponseEntity<Account> custAcctWithdraw(@RequestParam("withdrawAmount") double withdrawAmount, @RequestParam("accountNum") Long accountNum,
+                                                    @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) throws BadRequestException {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, () -> "withdraw:" + accountNum + ":" + withdrawAmount, Account.class,
+                    () -> withdraw(withdrawAmount, accountNum));
         }
-        acct.setBalanceAmt(acct.getBalanceAmt() - withdrawAmount);
-        Account response = accountRepo.save(acct);
+        return withdraw(withdrawAmount, accountNum);
+    }
+
+    private ResponseEntity<Account> withdraw(double withdrawAmount, Long accountNum) throws BadRequestException {
+        Account response = balanceService.withdraw(accountNum, Money.ofRupees(withdrawAmount));
+        cacheUpdated(response);
         return ResponseEntity.ok(response);
     }
 
+    @Timed(value = "banking.operation", extraTags = {"operation", "deposit"}, histogram = true)
     @PutMapping("/deposit")
-    public ResponseEntity<Account> custAcctDeposit(@RequestParam("depositAmount") double depositAmount, @RequestParam("accountNum") Long accountNum) throws BadRequestException {
-        Account acct = accountRepo.findByAccountNum(accountNum);
-        if(depositLimit < depositAmount) {
-            throw new BadRequestException("Deposit amount should be less than Rs.10000.0 per transaction.", HttpStatus.BAD_REQUEST);
+    public ResponseEntity<Account> custAcctDeposit(@RequestParam("depositAmount") double depositAmount, @RequestParam("accountNum") Long accountNum,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) throws BadRequestException {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, () -> "deposit:" + accountNum + ":" + depositAmount, Account.class,
+                    () -> deposit(depositAmount, accountNum));
         }
-        acct.setBalanceAmt(acct.getBalanceAmt() + depositAmount);
-        Account response = accountRepo.save(acct);
+        return deposit(depositAmount, accountNum);
+    }
+
+    private ResponseEntity<Account> deposit(double depositAmount, Long accountNum) throws BadRequestException {
+        if (writeBehindDeposits != null) {
+            Account response = writeBehindDeposits.deposit(accountNum, Money.ofRupees(depositAmount));
+            return ResponseEntity.accepted().body(response);
+        }
+        Account response = balanceService.deposit(accountNum, Money.ofRupees(depositAmount));
+        cacheUpdated(response);
         return ResponseEntity.ok(response);
     }
 
-    @PutMapping("/account")
-    public ResponseEntity<Customer> updateCustAcct(@RequestBody @Validated Customer customer) {
-        Customer response = customerRepo.save(customer);
+    @Timed(value = "banking.operation", extraTags = {"operation", "transfer"}, histogram = true)
+    @PutMapping("/transfer")
+    public ResponseEntity<TransferResult> transfer(@RequestParam("fromAccountNum") Long fromAccountNum, @RequestParam("toAccountNum") Long toAccountNum,
+                                                   @RequestParam("amount") double amount,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) throws BadRequestException {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, () -> "transfer:" + fromAccountNum + ":" + toAccountNum + ":" + amount, TransferResult.class,
+                    () -> applyTransfer(fromAccountNum, toAccountNum, amount));
+        }
+        return applyTransfer(fromAccountNum, toAccountNum, amount);
+    }
+
+    private ResponseEntity<TransferResult> applyTransfer(Long fromAccountNum, Long toAccountNum, double amount) throws BadRequestException {
+        TransferResult response = balanceService.transfer(fromAccountNum, toAccountNum, Money.ofRupees(amount));
+        cacheUpdated(response.getFromAccount());
+        cacheUpdated(response.getToAccount());
         return ResponseEntity.ok(response);
     }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "statement"}, histogram = true)
+    @GetMapping("/account/statement")
+    public ResponseEntity<List<AccountTransaction>> getAccountStatement(@RequestParam("accountNum") Long accountNum,
+                                                                        @RequestParam(value = "page", defaultValue = "0") int page,
+                                                                        @RequestParam(value = "size", defaultValue = "50") int size) throws BadRequestException {
+        if (page < 0 || size < 1 || size > 500) {
+            throw new BadRequestException("Statement page should be 0 or more and size between 1 and 500.", HttpStatus.BAD_REQUEST);
+        }
+        List<AccountTransaction> response = ledgerService.statement(accountNum, page, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "batch"}, histogram = true)
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<List<TransactionResult>> applyTransactionBatch(@RequestBody List<TransactionRequest> transactions) throws BadRequestException {
+        List<TransactionResult> response = batchService.apply(transactions);
+        for (TransactionRequest transaction : transactions) {
+            accountCache.invalidate(transaction.getAccountNum());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "banking.operation", extraTags = {"operation", "update"}, histogram = true)
+    @PutMapping("/account")
+    public ResponseEntity<CustomerResponse> updateCustAcct(@RequestBody CustomerResponse customer) throws BadRequestException {
+        Customer updated = updateService.update(customer);
+        for (Account acct : updated.getAccounts()) {
+            accountCache.invalidate(acct.getAccountNum());
+        }
+        return ResponseEntity.ok(CustomerResponse.of(updated, FieldSelection.ALL));
+    }
+    @Timed(value = "banking.operation", extraTags = {"operation", "delete"}, histogram = true)
     @DeleteMapping("/account")
     public ResponseEntity<Account> deleteCustAcct(@RequestParam("accountNum") Long accountNum) {
-        Account delAcct = null;
-        List<Customer> customerList = customerRepo.findAll();
-        for (Customer cust : customerList) {
-            for(Account acct : cust.getAccounts()) {
-                if(accountNum.equals(acct.getAccountNum())) {
-                    accountRepo.delete(acct);
-                    cust.setAccounts(null);
-                    customerRepo.saveAll(customerList);
-                    return ResponseEntity.ok(acct);
-                }
-            }
+        Account delAcct = accountRepo.findByAccountNum(accountNum);
+        if(delAcct == null) {
+            return ResponseEntity.internalServerError().build();
         }
-        return ResponseEntity.internalServerError().build();
+        accountRepo.deleteByAccountNum(accountNum);
+        accountCache.invalidate(accountNum);
+        return ResponseEntity.ok(delAcct);
     }
 
-    public Long generateUUIDNo() {
-        return ThreadLocalRandom.current().nextLong(10000000000L, 99999999999L);
+    // the create date of a new account differs per request, so only what the client sent counts
+    private static String createFingerprint(Customer customer) {
+        StringBuilder fingerprint = new StringBuilder("create:")
+                .append(customer.getCustName()).append(':')
+                .append(customer.getDob() == null ? null : customer.getDob().getTime()).append(':')
+                .append(customer.getEmail());
+        for (Account acct : customer.getAccounts()) {
+            fingerprint.append(':').append(acct.getBalancePaise());
+        }
+        return fingerprint.toString();
+    }
+
+    private void cacheUpdated(Account acct) {
+        // Ledger deposits leave the account row and its version untouched, so a put could not be ordered.
+        if (ledgerService.isEnabled()) {
+            accountCache.invalidate(acct.getAccountNum());
+        } else {
+            accountCache.put(acct);
+        }
     }
 }
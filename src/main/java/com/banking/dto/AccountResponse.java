@@ -0,0 +1,69 @@
+package com.banking.dto;
+
+import com.banking.entity.Account;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+/**
+ * What clients see of an {@link Account}: the row id and version stay internal. Fields left out by a
+ * {@link FieldSelection} are null and not written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = AccountResponse.Serializer.class)
+public class AccountResponse {
+    private Long accountNum;
+    private Double balanceAmt;
+    private Timestamp createDate;
+
+    public static AccountResponse of(Account acct, FieldSelection fields) {
+        return new AccountResponse(
+                fields.includes("accountNum") ? acct.getAccountNum() : null,
+                fields.includes("balanceAmt") ? acct.getBalanceAmt() : null,
+                fields.includes("createDate") ? acct.getCreateDate() : null);
+    }
+
+    /**
+     * Writes the fields directly with pre-encoded names instead of through bean introspection.
+     */
+    static final class Serializer extends StdSerializer<AccountResponse> {
+
+        static final Serializer INSTANCE = new Serializer();
+
+        private static final SerializedString ACCOUNT_NUM = new SerializedString("accountNum");
+        private static final SerializedString BALANCE_AMT = new SerializedString("balanceAmt");
+        private static final SerializedString CREATE_DATE = new SerializedString("createDate");
+
+        Serializer() {
+            super(AccountResponse.class);
+        }
+
+        @Override
+        public void serialize(AccountResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            if (value.accountNum != null) {
+                gen.writeFieldName(ACCOUNT_NUM);
+                gen.writeNumber(value.accountNum);
+            }
+            if (value.balanceAmt != null) {
+                gen.writeFieldName(BALANCE_AMT);
+                gen.writeNumber(value.balanceAmt);
+            }
+            if (value.createDate != null) {
+                gen.writeFieldName(CREATE_DATE);
+                provider.defaultSerializeDateValue(value.createDate, gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
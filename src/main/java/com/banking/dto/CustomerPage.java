@@ -0,0 +1,16 @@
+package com.banking.dto;
+
+import com.banking.entity.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPage {
+    private List<Customer> customers;
+    private Long nextCustId;
+}
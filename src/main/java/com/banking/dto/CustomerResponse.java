@@ -0,0 +1,104 @@
+package com.banking.dto;
+
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * What clients see of a {@link Customer} and its accounts, and what they send back to PUT /account to change it.
+ * Fields left out by a {@link FieldSelection} are null and not written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = CustomerResponse.Serializer.class)
+public class CustomerResponse {
+    private Long custId;
+    private String custName;
+    private Date dob;
+    private String email;
+    private List<AccountResponse> accounts;
+
+    public static CustomerResponse of(Customer cust, FieldSelection fields) {
+        List<AccountResponse> accounts = null;
+        if (fields.includes("accounts") && cust.getAccounts() != null) {
+            FieldSelection accountFields = fields.nested("accounts");
+            accounts = new ArrayList<>(cust.getAccounts().size());
+            for (Account acct : cust.getAccounts()) {
+                accounts.add(AccountResponse.of(acct, accountFields));
+            }
+        }
+        return new CustomerResponse(
+                fields.includes("custId") ? cust.getCustId() : null,
+                fields.includes("custName") ? cust.getCustName() : null,
+                fields.includes("dob") ? cust.getDob() : null,
+                fields.includes("email") ? cust.getEmail() : null,
+                accounts);
+    }
+
+    public static List<CustomerResponse> of(List<Customer> customers, FieldSelection fields) {
+        List<CustomerResponse> responses = new ArrayList<>(customers.size());
+        for (Customer cust : customers) {
+            responses.add(of(cust, fields));
+        }
+        return responses;
+    }
+
+    /**
+     * Writes the fields directly with pre-encoded names instead of through bean introspection.
+     */
+    static final class Serializer extends StdSerializer<CustomerResponse> {
+
+        private static final SerializedString CUST_ID = new SerializedString("custId");
+        private static final SerializedString CUST_NAME = new SerializedString("custName");
+        private static final SerializedString DOB = new SerializedString("dob");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString ACCOUNTS = new SerializedString("accounts");
+
+        Serializer() {
+            super(CustomerResponse.class);
+        }
+
+        @Override
+        public void serialize(CustomerResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            if (value.custId != null) {
+                gen.writeFieldName(CUST_ID);
+                gen.writeNumber(value.custId);
+            }
+            if (value.custName != null) {
+                gen.writeFieldName(CUST_NAME);
+                gen.writeString(value.custName);
+            }
+            if (value.dob != null) {
+                gen.writeFieldName(DOB);
+                provider.defaultSerializeDateValue(value.dob, gen);
+            }
+            if (value.email != null) {
+                gen.writeFieldName(EMAIL);
+                gen.writeString(value.email);
+            }
+            if (value.accounts != null) {
+                gen.writeFieldName(ACCOUNTS);
+                gen.writeStartArray(value.accounts, value.accounts.size());
+                for (AccountResponse acct : value.accounts) {
+                    AccountResponse.Serializer.INSTANCE.serialize(acct, gen, provider);
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+}
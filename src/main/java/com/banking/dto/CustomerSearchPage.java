@@ -0,0 +1,16 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchPage {
+    private List<CustomerSummary> customers;
+    private String nextAfterName;
+    private Long nextAfterCustId;
+}
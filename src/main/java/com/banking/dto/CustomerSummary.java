@@ -0,0 +1,16 @@
+package com.banking.dto;
+
+import java.util.Date;
+
+/**
+ * Customer columns without the accounts, read straight into a projection for list endpoints.
+ */
+public interface CustomerSummary {
+    Long getCustId();
+
+    String getCustName();
+
+    Date getDob();
+
+    String getEmail();
+}
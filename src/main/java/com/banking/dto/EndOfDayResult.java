@@ -0,0 +1,19 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndOfDayResult {
+    private String businessDate;
+    private long resumedAfterAccountNum;
+    private long accounts;
+    private double interestAmt;
+    private long feesCharged;
+    private double feeAmt;
+    private long elapsedMs;
+    private long accountsPerSecond;
+}
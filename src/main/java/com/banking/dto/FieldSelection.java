@@ -0,0 +1,64 @@
+package com.banking.dto;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The response fields a client asked for, as in {@code fields=custName,accounts.balanceAmt}. Naming an object
+ * field selects all of its fields; naming one of its fields with a dotted path selects only those. No list
+ * selects everything, and names that do not exist are ignored.
+ */
+public final class FieldSelection {
+
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new HashSet<>();
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(names));
+    }
+
+    public boolean includes(String field) {
+        if (fields == null || fields.contains(field)) {
+            return true;
+        }
+        String prefix = field + ".";
+        for (String name : fields) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The selection for the fields of the object held in {@code field}.
+     */
+    public FieldSelection nested(String field) {
+        if (fields == null || fields.contains(field)) {
+            return ALL;
+        }
+        String prefix = field + ".";
+        Set<String> names = new HashSet<>();
+        for (String name : fields) {
+            if (name.startsWith(prefix)) {
+                names.add(name.substring(prefix.length()));
+            }
+        }
+        return new FieldSelection(names);
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private long rows;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private String rejectFile;
+}
@@ -0,0 +1,30 @@
+package com.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionResult {
+
+    public enum Status {
+        APPLIED,
+        REJECTED
+    }
+
+    private int index;
+    private Long accountNum;
+    private Status status;
+    private Double balanceAmt;
+    private String errorMessage;
+
+    public static TransactionResult applied(int index, Long accountNum, double balanceAmt) {
+        return new TransactionResult(index, accountNum, Status.APPLIED, balanceAmt, null);
+    }
+
+    public static TransactionResult rejected(int index, Long accountNum, String errorMessage) {
+        return new TransactionResult(index, accountNum, Status.REJECTED, null, errorMessage);
+    }
+}
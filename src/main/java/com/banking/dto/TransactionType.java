@@ -0,0 +1,6 @@
+package com.banking.dto;
+
+public enum TransactionType {
+    DEPOSIT,
+    WITHDRAW
+}
@@ -0,0 +1,14 @@
+package com.banking.dto;
+
+import com.banking.entity.Account;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResult {
+    private Account fromAccount;
+    private Account toAccount;
+}
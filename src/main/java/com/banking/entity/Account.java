@@ -1,5 +1,7 @@
 package com.banking.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import javax.persistence.*;
@@ -15,12 +17,37 @@ import java.time.Instant;
 @EqualsAndHashCode
 public class Account implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     Long acctId;
 
+    @Column(unique = true)
     Long accountNum;
 
     Timestamp createDate = Timestamp.from(Instant.now());
 
-    Double balanceAmt;
+    @Column(name = "balance_paise")
+    @JsonIgnore
+    long balancePaise;
+
+    @Version
+    long version;
+
+    // ledger entries up to this id are already in balancePaise, see LedgerService
+    @JsonIgnore
+    long compactedTxnId;
+
+    @JsonProperty("balanceAmt")
+    public double getBalanceAmt() {
+        return Money.toRupees(balancePaise);
+    }
+
+    @JsonProperty("balanceAmt")
+    public void setBalanceAmt(double balanceAmt) {
+        this.balancePaise = Money.ofRupees(balanceAmt);
+    }
+
+    public Account withBalancePaise(long balancePaise) {
+        return new Account(acctId, accountNum, createDate, balancePaise, version, compactedTxnId);
+    }
 }
@@ -0,0 +1,45 @@
+package com.banking.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Entity
+@Table(name = "account_transaction", indexes = {
+        @Index(name = "idx_account_transaction_history", columnList = "accountNum, createDate"),
+        @Index(name = "idx_account_transaction_tail", columnList = "accountNum, txnId")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class AccountTransaction implements Serializable {
+    @Id
+    // one at a time rather than pooled, so ids increase in the order entries are written on each database
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_transaction_seq")
+    @SequenceGenerator(name = "account_transaction_seq", sequenceName = "account_transaction_seq", allocationSize = 1)
+    Long txnId;
+
+    Long accountNum;
+
+    Timestamp createDate = Timestamp.from(Instant.now());
+
+    @JsonIgnore
+    long amountPaise;
+
+    public AccountTransaction(Long accountNum, long amountPaise) {
+        this.accountNum = accountNum;
+        this.amountPaise = amountPaise;
+    }
+
+    @JsonProperty("amount")
+    public double getAmount() {
+        return Money.toRupees(amountPaise);
+    }
+}
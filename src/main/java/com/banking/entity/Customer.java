@@ -1,13 +1,21 @@
 package com.banking.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import javax.persistence.*;
 import java.io.Serializable;
+import java.text.Normalizer;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_customer_cust_name", columnList = "custName"),
+        @Index(name = "idx_customer_search_name", columnList = "searchName, custId")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,18 +23,45 @@ import java.util.List;
 @EqualsAndHashCode
 public class Customer implements Serializable {
 
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     Long custId;
 
     String custName;
 
+    @JsonIgnore
+    String searchName;
+
     @Temporal(TemporalType.DATE)
     Date dob;
 
     String email;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch =  FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "cust_id", referencedColumnName = "custId")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     List<Account> accounts;
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchName() {
+        searchName = normalizeName(custName);
+    }
+
+    /**
+     * Lower case, accents stripped and runs of whitespace collapsed, so that a prefix of the result can be
+     * matched with an index range scan.
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        return SPACES.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,42 @@
+package com.banking.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Journaled deposits that were acknowledged but could not be applied because the account had been deleted by
+ * the time the writer got to them. Kept for manual refund or reconciliation.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class DeadLetterDeposit {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dead_letter_deposit_seq")
+    @SequenceGenerator(name = "dead_letter_deposit_seq", sequenceName = "dead_letter_deposit_seq", allocationSize = 50)
+    Long id;
+
+    Long accountNum;
+
+    long amountPaise;
+
+    // the journal sequence range of the drain the deposits were part of
+    long fromSeq;
+
+    long toSeq;
+
+    Timestamp createDate = Timestamp.from(Instant.now());
+
+    public DeadLetterDeposit(Long accountNum, long amountPaise, long fromSeq, long toSeq) {
+        this.accountNum = accountNum;
+        this.amountPaise = amountPaise;
+        this.fromSeq = fromSeq;
+        this.toSeq = toSeq;
+    }
+}
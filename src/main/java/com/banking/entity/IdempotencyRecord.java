@@ -0,0 +1,35 @@
+package com.banking.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_create_date", columnList = "createDate"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class IdempotencyRecord {
+    @Id
+    @Column(length = 100)
+    String idempotencyKey;
+
+    @Column(length = 64)
+    String fingerprint;
+
+    int statusCode;
+
+    @Lob
+    String responseBody;
+
+    Timestamp createDate = Timestamp.from(Instant.now());
+
+    public IdempotencyRecord(String idempotencyKey, String fingerprint) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+    }
+}
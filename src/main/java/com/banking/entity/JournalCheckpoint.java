@@ -0,0 +1,19 @@
+package com.banking.entity;
+
+import lombok.*;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class JournalCheckpoint {
+    @Id
+    String name;
+
+    long appliedSeq;
+}
@@ -0,0 +1,24 @@
+package com.banking.entity;
+
+/**
+ * Money amounts are held as a primitive {@code long} of paise; these helpers convert at the API boundary.
+ */
+public final class Money {
+
+    public static final long PAISE_PER_RUPEE = 100L;
+
+    private Money() {
+    }
+
+    public static long ofRupees(double rupees) {
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    public static double toRupees(long paise) {
+        return (double) paise / PAISE_PER_RUPEE;
+    }
+
+    public static boolean exceedsPercentOf(long amount, long total, int percent) {
+        return amount * 100 > total * percent;
+    }
+}
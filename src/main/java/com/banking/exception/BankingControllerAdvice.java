@@ -18,4 +18,12 @@ public class BankingControllerAdvice extends ResponseEntityExceptionHandler {
         ErrorMessage errMsg = new ErrorMessage(new Date(), ex.getErrorMessage(), ex.getStatusCode());
         return new ResponseEntity<Object>(errMsg, new HttpHeaders(), ex.getStatusCode());
     }
+
+    @ExceptionHandler(value = { RateLimitException.class })
+    protected ResponseEntity<Object> handleRateLimitException(RateLimitException ex, WebRequest request) {
+        ErrorMessage errMsg = new ErrorMessage(new Date(), ex.getErrorMessage(), ex.getStatusCode());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<Object>(errMsg, headers, ex.getStatusCode());
+    }
 }
@@ -0,0 +1,20 @@
+package com.banking.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request turned away by the rate limiter, answered with 429 and a {@code Retry-After} header.
+ */
+public class RateLimitException extends BadRequestException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitException(String errorMessage, long retryAfterSeconds) {
+        super(errorMessage, HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,11 +1,49 @@
 package com.banking.repository;
 
 import com.banking.entity.Account;
-import com.banking.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Account findByAccountNum(Long account);
+    Account findByAccountNum(@ShardKey Long account);
+
+    boolean existsByAccountNum(@ShardKey Long accountNum);
+
+    // snapshot and pending ledger entries in one statement, so a compaction cannot commit between the two
+    @Query("select a, coalesce((select sum(t.amountPaise) from AccountTransaction t " +
+            "where t.accountNum = a.accountNum and t.txnId > a.compactedTxnId), 0) from Account a where a.accountNum = :accountNum")
+    List<Object[]> findWithPendingByAccountNum(@ShardKey @Param("accountNum") Long accountNum);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNum = :accountNum")
+    Account findForUpdateByAccountNum(@ShardKey @Param("accountNum") Long accountNum);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNum in :accountNums order by a.accountNum")
+    List<Account> findForUpdateByAccountNumIn(@ShardKey @Param("accountNums") Collection<Long> accountNums);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.balancePaise = a.balancePaise + :amount, a.version = a.version + 1 " +
+            "where a.accountNum = :accountNum")
+    int depositAtomically(@ShardKey @Param("accountNum") Long accountNum, @Param("amount") long amount);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.balancePaise = a.balancePaise - :amount, a.version = a.version + 1 " +
+            "where a.accountNum = :accountNum and a.balancePaise - :amount >= :minBalance and a.balancePaise * 9 >= :amount * 10")
+    int withdrawAtomically(@ShardKey @Param("accountNum") Long accountNum, @Param("amount") long amount, @Param("minBalance") long minBalance);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Account a where a.accountNum = :accountNum")
+    int deleteByAccountNum(@ShardKey @Param("accountNum") Long accountNum);
 }
@@ -0,0 +1,33 @@
+package com.banking.repository;
+
+import com.banking.entity.AccountTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountTransactionRepository extends JpaRepository<AccountTransaction, Long> {
+
+    List<AccountTransaction> findByAccountNumOrderByCreateDateDescTxnIdDesc(@ShardKey Long accountNum, Pageable pageable);
+
+    // pending means past the compactedTxnId watermark of the account's snapshot
+    @Query("select coalesce(sum(t.amountPaise), 0) from AccountTransaction t, Account a " +
+            "where a.accountNum = :accountNum and t.accountNum = a.accountNum and t.txnId > a.compactedTxnId")
+    long sumPendingByAccountNum(@ShardKey @Param("accountNum") Long accountNum);
+
+    @Query("select t from AccountTransaction t, Account a " +
+            "where t.accountNum in :accountNums and a.accountNum = t.accountNum and t.txnId > a.compactedTxnId")
+    List<AccountTransaction> findPendingByAccountNumIn(@ShardKey @Param("accountNums") Collection<Long> accountNums);
+
+    // entries of deleted accounts have no snapshot to fold into and are never returned
+    @ScatterGather
+    @Query("select distinct a.accountNum from Account a, AccountTransaction t " +
+            "where a.accountNum > :afterAccountNum and t.accountNum = a.accountNum and t.txnId > a.compactedTxnId " +
+            "order by a.accountNum")
+    List<Long> findAccountNumsWithPending(@Param("afterAccountNum") long afterAccountNum, Pageable pageable);
+}
@@ -1,13 +1,48 @@
 package com.banking.repository;
 
+import com.banking.dto.CustomerSummary;
 import com.banking.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
+// queries run read-only so that with banking.replica.enabled they go to the replica
 @Repository
+@Transactional(readOnly = true)
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
-    List<Customer> findByCustName(String customerName);
+    @Override
+    @ScatterGather
+    @Query("select distinct c from Customer c left join fetch c.accounts")
+    List<Customer> findAll();
+
+    @ScatterGather
+    @Query("select distinct c from Customer c left join fetch c.accounts where c.custName = :customerName")
+    List<Customer> findByCustName(@Param("customerName") String customerName);
+
+    @Query("select c.custId from Customer c where c.custId > :custId order by c.custId")
+    List<Long> findCustIdsAfter(@Param("custId") Long custId, Pageable pageable);
+
+    @Query("select distinct c from Customer c left join fetch c.accounts where c.custId in :custIds order by c.custId")
+    List<Customer> findWithAccountsByCustIdIn(@Param("custIds") Collection<Long> custIds);
+
+    List<CustomerSummary> findSummariesByCustIdGreaterThanOrderByCustIdAsc(Long custId, Pageable pageable);
+
+    /**
+     * Customers whose normalized name lies in [fromName, toName), after the (afterName, afterCustId) keyset
+     * position, in the order of the search name index.
+     */
+    @Query("select c.custId as custId, c.custName as custName, c.dob as dob, c.email as email from Customer c " +
+            "where c.searchName >= :fromName and c.searchName < :toName " +
+            "and (c.searchName > :afterName or (c.searchName = :afterName and c.custId > :afterCustId)) " +
+            "order by c.searchName, c.custId")
+    List<CustomerSummary> searchByName(@Param("fromName") String fromName, @Param("toName") String toName,
+                                       @Param("afterName") String afterName, @Param("afterCustId") Long afterCustId,
+                                       Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package com.banking.repository;
+
+import com.banking.entity.DeadLetterDeposit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeadLetterDepositRepository extends JpaRepository<DeadLetterDeposit, Long> {
+}
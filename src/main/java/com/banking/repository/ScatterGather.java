@@ -0,0 +1,15 @@
+package com.banking.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a list query that, when sharded, runs on every shard in parallel and returns the results of all of them
+ * in shard order.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ScatterGather {
+}
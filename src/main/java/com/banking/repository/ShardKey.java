@@ -0,0 +1,15 @@
+package com.banking.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the account number (or collection of account numbers) that decides which shard a repository method runs
+ * on when {@code banking.sharding.enabled=true}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface ShardKey {
+}
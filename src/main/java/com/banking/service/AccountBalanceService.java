@@ -0,0 +1,283 @@
+package com.banking.service;
+
+import com.banking.dto.TransferResult;
+import com.banking.entity.Account;
+import com.banking.entity.Money;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Applies deposits and withdrawals to a single account under the configured {@link ConcurrencyMode}.
+ * All amounts are in paise, see {@link Money}.
+ */
+@Service
+public class AccountBalanceService {
+
+    private static long depositLimit = Money.ofRupees(10000.0d);
+    private static long minBalInAcc = Money.ofRupees(100.0d);
+
+    // resolved once so that a rejection costs an increment and no tag lookup
+    private static final Counter depositLimitRejections = rejections("deposit_limit");
+    private static final Counter minBalanceRejections = rejections("min_balance");
+    private static final Counter withdrawPercentRejections = rejections("withdraw_percent");
+
+    private final AccountRepository accountRepo;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate txTemplate;
+    private final ConcurrencyMode mode;
+    private final int optimisticRetries;
+    private final ReentrantLock[] stripes;
+
+    public AccountBalanceService(AccountRepository accountRepo,
+                                 LedgerService ledgerService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${banking.concurrency.mode:ATOMIC}") ConcurrencyMode mode,
+                                 @Value("${banking.concurrency.optimistic-retries:10}") int optimisticRetries,
+                                 @Value("${banking.concurrency.lock-stripes:64}") int lockStripes) {
+        this.accountRepo = accountRepo;
+        this.ledgerService = ledgerService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.optimisticRetries = optimisticRetries;
+        this.stripes = new ReentrantLock[powerOfTwoAtLeast(lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Account deposit(Long accountNum, long depositAmount) throws BadRequestException {
+        checkDepositLimit(depositAmount);
+        if (mode == ConcurrencyMode.ATOMIC) {
+            return inTransaction(() -> {
+                if (accountRepo.depositAtomically(accountNum, depositAmount) == 0) {
+                    throw accountNotFound(accountNum);
+                }
+                return accountRepo.findByAccountNum(accountNum);
+            });
+        }
+        if (mode == ConcurrencyMode.LEDGER) {
+            return ledgerService.deposit(accountNum, depositAmount);
+        }
+        return update(accountNum, acct -> acct.setBalancePaise(acct.getBalancePaise() + depositAmount));
+    }
+
+    public Account withdraw(Long accountNum, long withdrawAmount) throws BadRequestException {
+        if (mode == ConcurrencyMode.ATOMIC) {
+            return inTransaction(() -> {
+                if (accountRepo.withdrawAtomically(accountNum, withdrawAmount, minBalInAcc) == 0) {
+                    Account acct = accountRepo.findByAccountNum(accountNum);
+                    if (acct == null) {
+                        throw accountNotFound(accountNum);
+                    }
+                    checkWithdrawal(acct.getBalancePaise(), withdrawAmount);
+                    throw new BadRequestException("Account is being updated concurrently. Please retry.", HttpStatus.CONFLICT);
+                }
+                return accountRepo.findByAccountNum(accountNum);
+            });
+        }
+        if (mode == ConcurrencyMode.LEDGER) {
+            return inTransaction(() -> {
+                Account acct = accountRepo.findForUpdateByAccountNum(accountNum);
+                if (acct == null) {
+                    throw accountNotFound(accountNum);
+                }
+                return ledgerService.withdraw(acct, withdrawAmount);
+            });
+        }
+        return update(accountNum, acct -> {
+            checkWithdrawal(acct.getBalancePaise(), withdrawAmount);
+            acct.setBalancePaise(acct.getBalancePaise() - withdrawAmount);
+        });
+    }
+
+    /**
+     * Moves money between two accounts in one transaction. The rows are locked in account number order, so
+     * transfers running in opposite directions cannot deadlock.
+     */
+    public TransferResult transfer(Long fromAccountNum, Long toAccountNum, long amount) throws BadRequestException {
+        if (fromAccountNum.equals(toAccountNum)) {
+            throw new BadRequestException("Cannot transfer to the same account.", HttpStatus.BAD_REQUEST);
+        }
+        if (amount <= 0) {
+            throw new BadRequestException("Transfer amount should be greater than Rs.0.0.", HttpStatus.BAD_REQUEST);
+        }
+        if (mode != ConcurrencyMode.STRIPED) {
+            return transferInTransaction(fromAccountNum, toAccountNum, amount);
+        }
+        // single account updates in this mode only hold the stripe lock, so take both, lowest stripe first
+        ReentrantLock fromLock = stripeFor(fromAccountNum);
+        ReentrantLock toLock = stripeFor(toAccountNum);
+        ReentrantLock first = stripeIndex(fromAccountNum) <= stripeIndex(toAccountNum) ? fromLock : toLock;
+        ReentrantLock second = first == fromLock ? toLock : fromLock;
+        first.lock();
+        second.lock();
+        try {
+            return transferInTransaction(fromAccountNum, toAccountNum, amount);
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    private TransferResult transferInTransaction(Long fromAccountNum, Long toAccountNum, long amount) throws BadRequestException {
+        return inTransaction(() -> {
+            boolean fromFirst = fromAccountNum < toAccountNum;
+            Account firstAcct = accountRepo.findForUpdateByAccountNum(fromFirst ? fromAccountNum : toAccountNum);
+            Account secondAcct = accountRepo.findForUpdateByAccountNum(fromFirst ? toAccountNum : fromAccountNum);
+            Account from = fromFirst ? firstAcct : secondAcct;
+            Account to = fromFirst ? secondAcct : firstAcct;
+            if (from == null) {
+                throw accountNotFound(fromAccountNum);
+            }
+            if (to == null) {
+                throw accountNotFound(toAccountNum);
+            }
+            ledgerService.foldPending(Arrays.asList(from, to));
+            checkWithdrawal(from.getBalancePaise(), amount);
+            from.setBalancePaise(from.getBalancePaise() - amount);
+            to.setBalancePaise(to.getBalancePaise() + amount);
+            return new TransferResult(accountRepo.save(from), accountRepo.save(to));
+        });
+    }
+
+    public static void checkDepositLimit(long depositAmount) throws BadRequestException {
+        if(depositLimit < depositAmount) {
+            depositLimitRejections.increment();
+            throw new BadRequestException("Deposit amount should be less than Rs.10000.0 per transaction.", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static void checkWithdrawal(long balanceAmt, long withdrawAmount) throws BadRequestException {
+        if(minBalInAcc > (balanceAmt - withdrawAmount) ) {
+            minBalanceRejections.increment();
+            throw new BadRequestException("Account balance should not be less than Rs.100.0. Please withdraw lesser amount.", HttpStatus.BAD_REQUEST);
+        }
+        if(Money.exceedsPercentOf(withdrawAmount, balanceAmt, 90)) {
+            withdrawPercentRejections.increment();
+            throw new BadRequestException("Cannot withdraw more than 90% of balance amount from the account. Please withdraw lesser amount.", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public Account update(Long accountNum, AccountUpdate update) throws BadRequestException {
+        switch (mode) {
+            case ATOMIC:
+            case OPTIMISTIC:
+                return updateOptimistically(accountNum, update);
+            case STRIPED:
+                return updateUnderStripeLock(accountNum, update);
+            default:
+                return updateInTransaction(accountNum, accountRepo::findForUpdateByAccountNum, update);
+        }
+    }
+
+    private Account updateOptimistically(Long accountNum, AccountUpdate update) throws BadRequestException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return updateInTransaction(accountNum, accountRepo::findByAccountNum, update);
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= optimisticRetries) {
+                    throw new BadRequestException("Account is being updated concurrently. Please retry.", HttpStatus.CONFLICT);
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    private Account updateUnderStripeLock(Long accountNum, AccountUpdate update) throws BadRequestException {
+        ReentrantLock lock = stripeFor(accountNum);
+        lock.lock();
+        try {
+            return updateInTransaction(accountNum, accountRepo::findByAccountNum, update);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Account updateInTransaction(Long accountNum, Function<Long, Account> loader, AccountUpdate update) throws BadRequestException {
+        return inTransaction(() -> {
+            Account acct = loader.apply(accountNum);
+            if (acct == null) {
+                throw accountNotFound(accountNum);
+            }
+            ledgerService.foldPending(Collections.singletonList(acct));
+            update.apply(acct);
+            return accountRepo.save(acct);
+        });
+    }
+
+    private <T> T inTransaction(AccountWork<T> work) throws BadRequestException {
+        try {
+            return txTemplate.execute(status -> {
+                try {
+                    return work.run();
+                } catch (BadRequestException ex) {
+                    throw new RejectedUpdate(ex);
+                }
+            });
+        } catch (RejectedUpdate ex) {
+            throw ex.reason;
+        }
+    }
+
+    private static Counter rejections(String rule) {
+        return Counter.builder("banking.rejections")
+                .description("Deposits and withdrawals rejected by a balance rule")
+                .tag("rule", rule)
+                .register(Metrics.globalRegistry);
+    }
+
+    static long minBalance() {
+        return minBalInAcc;
+    }
+
+    static BadRequestException accountNotFound(Long accountNum) {
+        return new BadRequestException("Account " + accountNum + " does not exist.", HttpStatus.NOT_FOUND);
+    }
+
+    private ReentrantLock stripeFor(Long accountNum) {
+        return stripes[stripeIndex(accountNum)];
+    }
+
+    private int stripeIndex(Long accountNum) {
+        int h = accountNum.hashCode();
+        h ^= (h >>> 16);
+        return h & (stripes.length - 1);
+    }
+
+    private static int powerOfTwoAtLeast(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Change applied to a loaded account, may reject it with a {@link BadRequestException}.
+     */
+    public interface AccountUpdate {
+        void apply(Account acct) throws BadRequestException;
+    }
+
+    private interface AccountWork<T> {
+        T run() throws BadRequestException;
+    }
+
+    private static class RejectedUpdate extends RuntimeException {
+        private final BadRequestException reason;
+
+        RejectedUpdate(BadRequestException reason) {
+            super(reason.getErrorMessage(), null, false, false);
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of accounts by account number, bounded in size and time. Writers put the account they
+ * just committed; an entry is only replaced by one with the same or a newer version, so a slow reader can
+ * never overwrite a newer balance. Misses load through {@link LedgerService} so pending ledger entries are
+ * included.
+ */
+@Component
+public class AccountCache implements MeterBinder {
+
+    private final LoadingCache<Long, Account> cache;
+
+    public AccountCache(LedgerService ledgerService,
+                        @Value("${banking.cache.account.max-size:100000}") long maxSize,
+                        @Value("${banking.cache.account.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build(ledgerService::currentAccount);
+    }
+
+    public Account get(Long accountNum) {
+        return cache.get(accountNum);
+    }
+
+    public void put(Account acct) {
+        if (acct == null || acct.getAccountNum() == null) {
+            return;
+        }
+        cache.asMap().merge(acct.getAccountNum(), acct,
+                (cached, fresh) -> fresh.getVersion() >= cached.getVersion() ? fresh : cached);
+    }
+
+    public void invalidate(Long accountNum) {
+        if (accountNum != null) {
+            cache.invalidate(accountNum);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "account");
+    }
+
+    public Map<String, Number> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Number> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictions", stats.evictionCount());
+        return response;
+    }
+}
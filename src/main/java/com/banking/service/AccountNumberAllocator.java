@@ -0,0 +1,121 @@
+package com.banking.service;
+
+import com.banking.entity.AccountNumberBlock;
+import com.banking.repository.AccountNumberBlockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out 11 digit account numbers: a 10 digit serial followed by a Luhn check digit. Serials are taken
+ * from blocks reserved in the account_number_block table, so every node owns a disjoint range and only
+ * goes to the database once per block. Within a node the serials are increasing, which keeps inserts into
+ * the account number index at its right-hand edge.
+ */
+@Service
+public class AccountNumberAllocator {
+
+    static final String BLOCK_NAME = "account_num";
+    static final long FIRST_SERIAL = 1_000_000_000L;
+    static final long LAST_SERIAL = 9_999_999_999L;
+
+    private final AccountNumberBlockRepository blockRepo;
+    private final TransactionTemplate txTemplate;
+    private final int blockSize;
+    // not a monitor: reserving a block runs a transaction, and a virtual thread blocked in a monitor pins its carrier
+    private final ReentrantLock reserveLock = new ReentrantLock();
+    private volatile Range current = new Range(0, 0);
+
+    public AccountNumberAllocator(AccountNumberBlockRepository blockRepo,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${banking.account-number.block-size:1000}") int blockSize) {
+        this.blockRepo = blockRepo;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public long next() {
+        while (true) {
+            Range range = current;
+            long serial = range.next.getAndIncrement();
+            if (serial < range.limit) {
+                return serial * 10 + checkDigit(serial);
+            }
+            reserveLock.lock();
+            try {
+                if (current == range) {
+                    current = reserveRange();
+                }
+            } finally {
+                reserveLock.unlock();
+            }
+        }
+    }
+
+    public static boolean isValid(long accountNum) {
+        return accountNum > 0 && checkDigit(accountNum / 10) == accountNum % 10;
+    }
+
+    static int checkDigit(long payload) {
+        int sum = 0;
+        boolean doubled = true;
+        while (payload > 0) {
+            int digit = (int) (payload % 10);
+            payload /= 10;
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private Range reserveRange() {
+        long block;
+        try {
+            block = reserveBlock();
+        } catch (DataIntegrityViolationException ex) {
+            // another node created the counter row first
+            block = reserveBlock();
+        }
+        long start = FIRST_SERIAL + block * blockSize;
+        if (start + blockSize - 1 > LAST_SERIAL) {
+            throw new IllegalStateException("Account number range is exhausted.");
+        }
+        return new Range(start, start + blockSize);
+    }
+
+    private long reserveBlock() {
+        return txTemplate.execute(status -> {
+            AccountNumberBlock counter = blockRepo.findForUpdateByName(BLOCK_NAME);
+            if (counter == null) {
+                counter = new AccountNumberBlock(BLOCK_NAME, 0L);
+            }
+            long block = counter.getNextBlock();
+            counter.setNextBlock(block + 1);
+            blockRepo.saveAndFlush(counter);
+            return block;
+        });
+    }
+
+    private static final class Range {
+        private final AtomicLong next;
+        private final long limit;
+
+        private Range(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
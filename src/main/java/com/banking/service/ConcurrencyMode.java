@@ -0,0 +1,17 @@
+package com.banking.service;
+
+/**
+ * How {@link AccountBalanceService} serializes read-modify-write updates on one account.
+ */
+public enum ConcurrencyMode {
+    /** Single conditional UPDATE per request, balance rules evaluated by the database. */
+    ATOMIC,
+    /** Plain read and save, conflicts detected through the account version and retried. */
+    OPTIMISTIC,
+    /** Account row read with SELECT ... FOR UPDATE for the length of the transaction. */
+    PESSIMISTIC,
+    /** In-process lock per stripe of account numbers, only safe for a single node. */
+    STRIPED,
+    /** Deposits append to the transaction ledger without touching the account row, single node only, see {@link LedgerService}. */
+    LEDGER
+}
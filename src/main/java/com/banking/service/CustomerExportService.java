@@ -0,0 +1,81 @@
+package com.banking.service;
+
+import com.banking.dto.CustomerPage;
+import com.banking.dto.CustomerSummary;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads customers in custId keyset order so that only one page is ever held in memory. A page is two queries,
+ * the next custIds and then those customers with their accounts fetched in the same select.
+ */
+@Service
+public class CustomerExportService {
+
+    private final CustomerRepository customerRepo;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    public CustomerExportService(CustomerRepository customerRepo,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${banking.export.max-page-size:1000}") int maxPageSize) {
+        this.customerRepo = customerRepo;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public CustomerPage page(Long afterCustId, int size) throws BadRequestException {
+        checkPageSize(size);
+        List<Customer> customers = nextPage(afterCustId, size);
+        Long nextCustId = customers.size() < size ? null : customers.get(customers.size() - 1).getCustId();
+        return new CustomerPage(customers, nextCustId);
+    }
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        Long afterCustId = 0L;
+        while (afterCustId != null) {
+            List<Customer> customers = nextPage(afterCustId, maxPageSize);
+            for (Customer cust : customers) {
+                out.write(objectMapper.writeValueAsBytes(cust));
+                out.write('\n');
+            }
+            out.flush();
+            afterCustId = customers.size() < maxPageSize ? null : customers.get(customers.size() - 1).getCustId();
+            entityManager.clear();
+        }
+    }
+
+    public List<CustomerSummary> summaries(Long afterCustId, int size) throws BadRequestException {
+        checkPageSize(size);
+        return customerRepo.findSummariesByCustIdGreaterThanOrderByCustIdAsc(afterCustId, PageRequest.of(0, size));
+    }
+
+    private List<Customer> nextPage(Long afterCustId, int size) {
+        List<Long> custIds = customerRepo.findCustIdsAfter(afterCustId, PageRequest.of(0, size));
+        if (custIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return customerRepo.findWithAccountsByCustIdIn(custIds);
+    }
+
+    private void checkPageSize(int size) throws BadRequestException {
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Page size should be between 1 and " + maxPageSize + ".", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
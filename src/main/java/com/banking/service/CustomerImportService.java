@@ -0,0 +1,314 @@
+package com.banking.service;
+
+import com.banking.config.ShardRouting;
+import com.banking.dto.ImportResult;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.Money;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports customers, each with one account, from CSV rows of {@code custName,dob,email,initialDeposit}. The file
+ * is read a line at a time; valid rows are grouped into chunks that worker threads insert in one batched
+ * transaction each, with at most two chunks per worker waiting, so memory stays flat whatever the file size.
+ * With sharding a chunk is split by the shard of each new account and every part commits on its own, so a
+ * failing shard only rejects its own rows. Rows that fail validation, or whose insert fails, are written to a
+ * reject file with the reason.
+ */
+@Service
+public class CustomerImportService {
+
+    static final String HEADER = "custName,dob,email,initialDeposit";
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportService.class);
+
+    private final CustomerRepository customerRepo;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final ShardRouting shardRouting;
+    private final int chunkSize;
+    private final int workers;
+    private final Path rejectDir;
+
+    public CustomerImportService(CustomerRepository customerRepo,
+                                 AccountNumberAllocator accountNumberAllocator,
+                                 ObjectProvider<ShardRouting> shardRouting,
+                                 @Value("${banking.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${banking.import.workers:4}") int workers,
+                                 @Value("${banking.import.reject-dir:data/import-rejects}") String rejectDir) {
+        this.customerRepo = customerRepo;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.shardRouting = shardRouting.getIfAvailable();
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.rejectDir = Paths.get(rejectDir);
+    }
+
+    public Path newRejectFile() {
+        return rejectDir.resolve("rejects-" + UUID.randomUUID() + ".csv");
+    }
+
+    public ImportResult importCsv(InputStream csv, Path rejectFile) throws IOException {
+        long started = System.nanoTime();
+        AtomicLong imported = new AtomicLong();
+        long rows = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(workers, new ImportThreadFactory());
+        Semaphore queued = new Semaphore(workers * 2);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+             RejectWriter rejects = new RejectWriter(rejectFile)) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            long lineNum = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNum++;
+                if (line.isBlank() || (lineNum == 1 && line.replace(" ", "").equalsIgnoreCase(HEADER))) {
+                    continue;
+                }
+                rows++;
+                try {
+                    chunk.add(new Row(lineNum, line, parse(line)));
+                } catch (BadRequestException ex) {
+                    rejects.write(lineNum, line, ex.getErrorMessage());
+                }
+                if (chunk.size() == chunkSize) {
+                    submit(pool, queued, chunk, imported, rejects);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(pool, queued, chunk, imported, rejects);
+            }
+            pool.shutdown();
+            awaitWorkers(pool);
+            long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            return new ImportResult(rows, imported.get(), rejects.count(), elapsedMs, rows * 1000 / elapsedMs, rejectFile.toString());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void submit(ExecutorService pool, Semaphore queued, List<Row> chunk, AtomicLong imported, RejectWriter rejects) throws IOException {
+        try {
+            queued.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", ex);
+        }
+        pool.execute(() -> {
+            try {
+                for (List<Row> part : splitByShard(chunk)) {
+                    insert(part, imported, rejects);
+                }
+            } catch (RuntimeException ex) {
+                // nothing is written before every row of the chunk has an account number
+                reject(chunk, ex, rejects);
+            } finally {
+                queued.release();
+            }
+        });
+    }
+
+    private List<List<Row>> splitByShard(List<Row> chunk) {
+        for (Row row : chunk) {
+            row.customer.getAccounts().get(0).setAccountNum(accountNumberAllocator.next());
+        }
+        if (shardRouting == null) {
+            return Collections.singletonList(chunk);
+        }
+        Map<Integer, List<Row>> byShard = new TreeMap<>();
+        for (Row row : chunk) {
+            int shard = shardRouting.shardFor(row.customer.getAccounts().get(0).getAccountNum());
+            byShard.computeIfAbsent(shard, k -> new ArrayList<>()).add(row);
+        }
+        return new ArrayList<>(byShard.values());
+    }
+
+    // every part is on one shard, so saveAll is one transaction and the part is either all in or all rejected
+    private void insert(List<Row> part, AtomicLong imported, RejectWriter rejects) {
+        List<Customer> customers = new ArrayList<>(part.size());
+        for (Row row : part) {
+            customers.add(row.customer);
+        }
+        try {
+            customerRepo.saveAll(customers);
+            imported.addAndGet(part.size());
+        } catch (RuntimeException ex) {
+            reject(part, ex, rejects);
+        }
+    }
+
+    private static void reject(List<Row> rows, RuntimeException ex, RejectWriter rejects) {
+        log.warn("Rejecting {} rows from line {} on: {}", rows.size(), rows.get(0).lineNum, ex.toString());
+        for (Row row : rows) {
+            rejects.write(row.lineNum, row.line, "Insert failed: " + ex.getMessage());
+        }
+    }
+
+    static Customer parse(String line) throws BadRequestException {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 4) {
+            throw new BadRequestException("Expected 4 fields (" + HEADER + ") but found " + fields.size() + ".", HttpStatus.BAD_REQUEST);
+        }
+        String custName = fields.get(0).trim();
+        if (custName.isEmpty()) {
+            throw new BadRequestException("Customer name is required.", HttpStatus.BAD_REQUEST);
+        }
+        LocalDate dob;
+        try {
+            dob = LocalDate.parse(fields.get(1).trim());
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Date of birth should be yyyy-MM-dd.", HttpStatus.BAD_REQUEST);
+        }
+        String email = fields.get(2).trim();
+        if (email.indexOf('@') < 1) {
+            throw new BadRequestException("Email address is not valid.", HttpStatus.BAD_REQUEST);
+        }
+        long depositPaise;
+        try {
+            depositPaise = Money.ofRupees(Double.parseDouble(fields.get(3).trim()));
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Initial deposit should be a number.", HttpStatus.BAD_REQUEST);
+        }
+        if (depositPaise < 0) {
+            throw new BadRequestException("Initial deposit should not be negative.", HttpStatus.BAD_REQUEST);
+        }
+        AccountBalanceService.checkDepositLimit(depositPaise);
+
+        Account acct = new Account();
+        acct.setBalancePaise(depositPaise);
+        Customer cust = new Customer();
+        cust.setCustName(custName);
+        cust.setDob(java.sql.Date.valueOf(dob));
+        cust.setEmail(email);
+        cust.setAccounts(new ArrayList<>(Collections.singletonList(acct)));
+        return cust;
+    }
+
+    /**
+     * Splits one CSV line, honoring double quoted fields with {@code ""} as an escaped quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void awaitWorkers(ExecutorService pool) throws IOException {
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", ex);
+        }
+    }
+
+    private static final class Row {
+        final long lineNum;
+        final String line;
+        final Customer customer;
+
+        Row(long lineNum, String line, Customer customer) {
+            this.lineNum = lineNum;
+            this.line = line;
+            this.customer = customer;
+        }
+    }
+
+    private static final class RejectWriter implements Closeable {
+        private final BufferedWriter out;
+        private long count;
+
+        RejectWriter(Path file) throws IOException {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            out.write("line," + HEADER + ",reason");
+            out.newLine();
+        }
+
+        synchronized void write(long lineNum, String line, String reason) {
+            count++;
+            try {
+                out.write(lineNum + "," + line + ",\"" + String.valueOf(reason).replace("\"", "\"\"") + "\"");
+                out.newLine();
+            } catch (IOException ex) {
+                log.warn("Could not record rejected line {}: {}", lineNum, reason, ex);
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static final class ImportThreadFactory implements ThreadFactory {
+        private final AtomicInteger next = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "customer-import-" + next.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.banking.service;
+
+import com.banking.dto.CustomerSearchPage;
+import com.banking.dto.CustomerSummary;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Case and accent insensitive prefix search over customer names. The prefix is normalized like
+ * {@link Customer#normalizeName(String)} and turned into a range on the indexed search name, paged by the
+ * (search name, custId) of the last result.
+ */
+@Service
+public class CustomerSearchService {
+
+    private final CustomerRepository customerRepo;
+    private final int maxLimit;
+
+    public CustomerSearchService(CustomerRepository customerRepo,
+                                 @Value("${banking.search.max-limit:100}") int maxLimit) {
+        this.customerRepo = customerRepo;
+        this.maxLimit = maxLimit;
+    }
+
+    public CustomerSearchPage searchByName(String prefix, int limit, String afterName, Long afterCustId) throws BadRequestException {
+        String fromName = Customer.normalizeName(prefix);
+        if (fromName == null || fromName.isEmpty()) {
+            throw new BadRequestException("Search prefix should not be empty.", HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException("Search limit should be between 1 and " + maxLimit + ".", HttpStatus.BAD_REQUEST);
+        }
+        String toName = fromName.substring(0, fromName.length() - 1) + (char) (fromName.charAt(fromName.length() - 1) + 1);
+        String after = afterName == null ? "" : Customer.normalizeName(afterName);
+        List<CustomerSummary> customers = customerRepo.searchByName(fromName, toName, after,
+                afterCustId == null ? 0L : afterCustId, PageRequest.of(0, limit));
+        if (customers.size() < limit) {
+            return new CustomerSearchPage(customers, null, null);
+        }
+        CustomerSummary last = customers.get(customers.size() - 1);
+        return new CustomerSearchPage(customers, Customer.normalizeName(last.getCustName()), last.getCustId());
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.service;
+
+import com.banking.dto.AccountResponse;
+import com.banking.dto.CustomerResponse;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.Money;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.CustomerRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies an edited {@link CustomerResponse}, the shape clients read from the list endpoints, to a customer. The
+ * customer is found by its id and its accounts by account number, so row ids and versions never have to travel
+ * through clients. Fields left out are kept. Accounts being changed are locked and have their pending ledger
+ * entries folded before the new balance is set.
+ */
+@Service
+public class CustomerUpdateService {
+
+    private final CustomerRepository customerRepo;
+    private final AccountRepository accountRepo;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate txTemplate;
+
+    public CustomerUpdateService(CustomerRepository customerRepo,
+                                 AccountRepository accountRepo,
+                                 LedgerService ledgerService,
+                                 PlatformTransactionManager transactionManager) {
+        this.customerRepo = customerRepo;
+        this.accountRepo = accountRepo;
+        this.ledgerService = ledgerService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Customer update(CustomerResponse request) throws BadRequestException {
+        if (request.getCustId() == null) {
+            throw new BadRequestException("custId is required to update a customer.", HttpStatus.BAD_REQUEST);
+        }
+        Map<Long, Double> balances = new TreeMap<>();
+        if (request.getAccounts() != null) {
+            for (AccountResponse acct : request.getAccounts()) {
+                if (acct.getAccountNum() == null) {
+                    throw new BadRequestException("accountNum is required for every account.", HttpStatus.BAD_REQUEST);
+                }
+                balances.put(acct.getAccountNum(), acct.getBalanceAmt());
+            }
+        }
+        try {
+            return txTemplate.execute(status -> apply(request, balances));
+        } catch (RejectedUpdate ex) {
+            throw ex.reason;
+        }
+    }
+
+    private Customer apply(CustomerResponse request, Map<Long, Double> balances) {
+        // locked before the customer's accounts are loaded, so the balances read are the ones being replaced
+        List<Account> locked = balances.isEmpty() ? List.of() : accountRepo.findForUpdateByAccountNumIn(balances.keySet());
+        Customer cust = customerRepo.findById(request.getCustId()).orElse(null);
+        if (cust == null) {
+            throw new RejectedUpdate(new BadRequestException("Customer " + request.getCustId() + " does not exist.", HttpStatus.NOT_FOUND));
+        }
+        Map<Long, Account> owned = new HashMap<>();
+        for (Account acct : cust.getAccounts()) {
+            owned.put(acct.getAccountNum(), acct);
+        }
+        for (Long accountNum : balances.keySet()) {
+            if (!owned.containsKey(accountNum)) {
+                throw new RejectedUpdate(new BadRequestException("Account " + accountNum + " does not belong to customer "
+                        + cust.getCustId() + ".", HttpStatus.BAD_REQUEST));
+            }
+        }
+        if (request.getCustName() != null) {
+            cust.setCustName(request.getCustName());
+        }
+        if (request.getDob() != null) {
+            cust.setDob(request.getDob());
+        }
+        if (request.getEmail() != null) {
+            cust.setEmail(request.getEmail());
+        }
+        ledgerService.foldPending(locked);
+        for (Account acct : locked) {
+            Double balanceAmt = balances.get(acct.getAccountNum());
+            if (balanceAmt != null) {
+                acct.setBalancePaise(Money.ofRupees(balanceAmt));
+            }
+        }
+        return cust;
+    }
+
+    private static class RejectedUpdate extends RuntimeException {
+        private final BadRequestException reason;
+
+        RejectedUpdate(BadRequestException reason) {
+            super(reason.getErrorMessage(), null, false, false);
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.banking.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed size ring of deposit records in a memory-mapped file. Every record carries its sequence number and a
+ * checksum, so after a crash the records following the last applied sequence can be told apart from stale
+ * slots of an earlier lap. {@link #awaitDurable(long)} forces the mapping once for every record written so
+ * far, so concurrent callers share a single fsync.
+ */
+class DepositJournal implements Closeable {
+
+    private static final int MAGIC = 0x4450534a;
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 32;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    // not a monitor: a virtual thread waiting out an fsync inside one would pin its carrier thread
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    private long nextSeq;
+    private long releasedSeq;
+    private volatile long writtenSeq;
+    private volatile long durableSeq;
+
+    DepositJournal(Path path, int capacity) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.file = new RandomAccessFile(path.toFile(), "rw");
+        if (file.length() >= HEADER_BYTES) {
+            file.seek(0);
+            if (file.readInt() != MAGIC) {
+                file.close();
+                throw new IOException(path + " is not a deposit journal.");
+            }
+            capacity = file.readInt();
+        } else if ((long) capacity * RECORD_BYTES + HEADER_BYTES > Integer.MAX_VALUE) {
+            file.close();
+            throw new IllegalArgumentException("Deposit journal capacity " + capacity + " does not fit in one mapping.");
+        }
+        this.capacity = capacity;
+        this.buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, capacity);
+    }
+
+    /**
+     * Positions the journal after the records that follow {@code appliedSeq} without a gap and returns the
+     * sequence of the last one. Those records are treated as durable.
+     */
+    synchronized long recover(long appliedSeq) {
+        long seq = appliedSeq;
+        while (seq - appliedSeq < capacity && readRecord(seq + 1) != null) {
+            seq++;
+        }
+        nextSeq = seq + 1;
+        releasedSeq = appliedSeq;
+        writtenSeq = seq;
+        durableSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Writes a record and returns its sequence, or -1 when every slot still holds an unapplied record.
+     */
+    synchronized long append(long accountNum, long amountPaise) {
+        if (nextSeq - releasedSeq > capacity) {
+            return -1;
+        }
+        long seq = nextSeq++;
+        int offset = offset(seq);
+        buffer.putLong(offset, seq);
+        buffer.putLong(offset + 8, accountNum);
+        buffer.putLong(offset + 16, amountPaise);
+        buffer.putInt(offset + 24, checksum(seq, accountNum, amountPaise));
+        writtenSeq = seq;
+        return seq;
+    }
+
+    void awaitDurable(long seq) {
+        forceLock.lock();
+        try {
+            if (durableSeq >= seq) {
+                return;
+            }
+            long upTo = writtenSeq;
+            buffer.force();
+            durableSeq = upTo;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    long durableSeq() {
+        return durableSeq;
+    }
+
+    /**
+     * Records after {@code fromSeq} up to and including {@code toSeq}, all of which must be durable.
+     */
+    List<Entry> read(long fromSeq, long toSeq) {
+        List<Entry> entries = new ArrayList<>((int) (toSeq - fromSeq));
+        for (long seq = fromSeq + 1; seq <= toSeq; seq++) {
+            Entry entry = readRecord(seq);
+            if (entry == null) {
+                throw new IllegalStateException("Deposit journal record " + seq + " is missing or corrupt.");
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Frees the slots of every record up to {@code appliedSeq} for reuse.
+     */
+    synchronized void release(long appliedSeq) {
+        releasedSeq = Math.max(releasedSeq, appliedSeq);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        file.close();
+    }
+
+    private Entry readRecord(long seq) {
+        int offset = offset(seq);
+        ByteBuffer view = buffer.duplicate();
+        long storedSeq = view.getLong(offset);
+        long accountNum = view.getLong(offset + 8);
+        long amountPaise = view.getLong(offset + 16);
+        if (storedSeq != seq || view.getInt(offset + 24) != checksum(seq, accountNum, amountPaise)) {
+            return null;
+        }
+        return new Entry(seq, accountNum, amountPaise);
+    }
+
+    private int offset(long seq) {
+        return HEADER_BYTES + (int) (seq % capacity) * RECORD_BYTES;
+    }
+
+    private static int checksum(long seq, long accountNum, long amountPaise) {
+        ByteBuffer bytes = ByteBuffer.allocate(24).putLong(seq).putLong(accountNum).putLong(amountPaise);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 0, 24);
+        return (int) crc.getValue();
+    }
+
+    static final class Entry {
+        final long seq;
+        final long accountNum;
+        final long amountPaise;
+
+        Entry(long seq, long accountNum, long amountPaise) {
+            this.seq = seq;
+            this.accountNum = accountNum;
+            this.amountPaise = amountPaise;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.banking.service;
+
+import com.banking.dto.EndOfDayResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Runs the end of day batch for the current date on {@code banking.eod.cron}.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.eod.enabled", havingValue = "true")
+public class EndOfDayJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EndOfDayJob.class);
+
+    private final EndOfDayService endOfDayService;
+
+    public EndOfDayJob(EndOfDayService endOfDayService) {
+        this.endOfDayService = endOfDayService;
+    }
+
+    @Scheduled(cron = "${banking.eod.cron:0 30 23 * * *}")
+    public void run() {
+        EndOfDayResult result = endOfDayService.run(LocalDate.now());
+        log.info("End of day finished: {}", result);
+    }
+}
@@ -0,0 +1,265 @@
+package com.banking.service;
+
+import com.banking.config.ShardRouting;
+import com.banking.dto.EndOfDayResult;
+import com.banking.entity.JournalCheckpoint;
+import com.banking.entity.Money;
+import com.banking.repository.JournalCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Accrues a day of interest and charges the maintenance fee on accounts below the minimum balance. Accounts
+ * are read in chunks ordered by account number; each chunk is computed on a fork-join pool and written back
+ * with one batched update in one transaction, together with a checkpoint of its last account number. A run
+ * for a business date that was interrupted resumes after the last committed chunk, and running the same date
+ * again changes nothing. Memory stays at a few arrays of {@code banking.eod.chunk-size} whatever the account count.
+ * On sharded storage every shard is swept in turn with a checkpoint of its own, kept on that shard next to the
+ * balances it covers.
+ */
+@Service
+public class EndOfDayService {
+
+    private static final Logger log = LoggerFactory.getLogger(EndOfDayService.class);
+
+    private static final String SELECT_CHUNK = "select acct_id, account_num, balance_paise from account " +
+            "where account_num > ? order by account_num limit ?";
+    // adds a delta rather than setting the balance, so deposits made while the batch runs are kept
+    private static final String APPLY_DELTA = "update account set balance_paise = balance_paise + ?, version = version + 1 " +
+            "where acct_id = ?";
+    private static final long DAYS_PER_YEAR = 365L;
+    private static final long BASIS_POINTS = 10_000L;
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalCheckpointRepository checkpointRepo;
+    private final ShardRouting shardRouting;
+    private final LedgerService ledgerService;
+    private final AccountCache accountCache;
+    private final TransactionTemplate txTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long interestRateBps;
+    private final long feePaise;
+    private final int compactionBatch;
+
+    public EndOfDayService(JdbcTemplate jdbcTemplate,
+                           JournalCheckpointRepository checkpointRepo,
+                           ObjectProvider<ShardRouting> shardRouting,
+                           LedgerService ledgerService,
+                           AccountCache accountCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${banking.eod.chunk-size:10000}") int chunkSize,
+                           @Value("${banking.eod.parallelism:0}") int parallelism,
+                           @Value("${banking.eod.interest-rate-bps:350}") long interestRateBps,
+                           @Value("${banking.eod.maintenance-fee:50.0}") double maintenanceFee,
+                           @Value("${banking.ledger.compaction-batch:500}") int compactionBatch) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointRepo = checkpointRepo;
+        this.shardRouting = shardRouting.getIfAvailable();
+        this.ledgerService = ledgerService;
+        this.accountCache = accountCache;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.interestRateBps = interestRateBps;
+        this.feePaise = Money.ofRupees(maintenanceFee);
+        this.compactionBatch = compactionBatch;
+    }
+
+    public EndOfDayResult run(LocalDate businessDate) {
+        long started = System.nanoTime();
+        // interest is on the whole balance, so pending ledger entries go into the snapshot first
+        ledgerService.compact(compactionBatch);
+        Totals totals = new Totals();
+        Chunk chunk = new Chunk(chunkSize);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            if (shardRouting == null) {
+                sweep(null, checkpointName(businessDate), chunk, pool, totals);
+            } else {
+                for (int shard = 0; shard < shardRouting.shardCount(); shard++) {
+                    sweep(shard, checkpointName(businessDate, shard), chunk, pool, totals);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        accountCache.invalidateAll();
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return new EndOfDayResult(businessDate.toString(), totals.resumedAfter, totals.accounts,
+                Money.toRupees(totals.interestPaise), totals.feesCharged, Money.toRupees(totals.feePaise), elapsedMs,
+                totals.accounts * 1000 / elapsedMs);
+    }
+
+    private void sweep(Integer shard, String checkpointName, Chunk chunk, ForkJoinPool pool, Totals totals) {
+        long resumedAfter = txTemplate.execute(status -> onShard(shard, () -> checkpointRepo.findById(checkpointName)
+                .orElseGet(() -> checkpointRepo.save(new JournalCheckpoint(checkpointName, 0L))))).getAppliedSeq();
+        if (resumedAfter > 0) {
+            log.info("Resuming {} after account {}", checkpointName, resumedAfter);
+        }
+        totals.resumedAfter = Math.max(totals.resumedAfter, resumedAfter);
+
+        long afterAccountNum = resumedAfter;
+        while (read(shard, chunk, afterAccountNum) > 0) {
+            pool.invoke(new Accrual(chunk, 0, chunk.size));
+            write(shard, chunk, checkpointName);
+            afterAccountNum = chunk.accountNums[chunk.size - 1];
+            totals.accounts += chunk.size;
+            for (int i = 0; i < chunk.size; i++) {
+                totals.interestPaise += chunk.interest[i];
+                if (chunk.fee[i] > 0) {
+                    totals.feesCharged++;
+                    totals.feePaise += chunk.fee[i];
+                }
+            }
+        }
+    }
+
+    private int read(Integer shard, Chunk chunk, long afterAccountNum) {
+        chunk.size = 0;
+        return onShard(shard, () -> {
+            jdbcTemplate.query(SELECT_CHUNK, (RowCallbackHandler) rs -> {
+                int i = chunk.size++;
+                chunk.acctIds[i] = rs.getLong(1);
+                chunk.accountNums[i] = rs.getLong(2);
+                chunk.balances[i] = rs.getLong(3);
+            }, afterAccountNum, chunkSize);
+            return chunk.size;
+        });
+    }
+
+    private void write(Integer shard, Chunk chunk, String checkpointName) {
+        int changed = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            if (chunk.interest[i] != chunk.fee[i]) {
+                chunk.changed[changed++] = i;
+            }
+        }
+        int updates = changed;
+        txTemplate.execute(status -> onShard(shard, () -> {
+            jdbcTemplate.batchUpdate(APPLY_DELTA, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int n) throws SQLException {
+                    int i = chunk.changed[n];
+                    ps.setLong(1, chunk.interest[i] - chunk.fee[i]);
+                    ps.setLong(2, chunk.acctIds[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return updates;
+                }
+            });
+            return checkpointRepo.save(new JournalCheckpoint(checkpointName, chunk.accountNums[chunk.size - 1]));
+        }));
+    }
+
+    // the raw SQL does not go through the repositories, so it is pinned to the shard being swept here
+    private <T> T onShard(Integer shard, Supplier<T> call) {
+        if (shard == null) {
+            return call.get();
+        }
+        try {
+            return shardRouting.callOn(shard, call::get);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A day of interest at {@code interest-rate-bps} a year, rounded down to the paisa.
+     */
+    long dailyInterest(long balancePaise) {
+        return balancePaise > 0 ? balancePaise * interestRateBps / (BASIS_POINTS * DAYS_PER_YEAR) : 0;
+    }
+
+    /**
+     * The maintenance fee when the balance is below the minimum, never more than the balance itself.
+     */
+    long maintenanceFee(long balancePaise) {
+        return balancePaise < AccountBalanceService.minBalance() ? Math.max(0, Math.min(feePaise, balancePaise)) : 0;
+    }
+
+    static String checkpointName(LocalDate businessDate) {
+        return "end-of-day:" + businessDate;
+    }
+
+    static String checkpointName(LocalDate businessDate, int shard) {
+        return checkpointName(businessDate) + ":shard-" + shard;
+    }
+
+    private static final class Totals {
+        long resumedAfter;
+        long accounts;
+        long interestPaise;
+        long feesCharged;
+        long feePaise;
+    }
+
+    /**
+     * One chunk of accounts as parallel arrays, allocated once per run and refilled for every chunk.
+     */
+    private static final class Chunk {
+        final long[] acctIds;
+        final long[] accountNums;
+        final long[] balances;
+        final long[] interest;
+        final long[] fee;
+        final int[] changed;
+        int size;
+
+        Chunk(int capacity) {
+            acctIds = new long[capacity];
+            accountNums = new long[capacity];
+            balances = new long[capacity];
+            interest = new long[capacity];
+            fee = new long[capacity];
+            changed = new int[capacity];
+        }
+    }
+
+    private final class Accrual extends RecursiveAction {
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        Accrual(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    long balance = chunk.balances[i];
+                    chunk.interest[i] = dailyInterest(balance);
+                    chunk.fee[i] = maintenanceFee(balance);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Accrual(chunk, from, mid), new Accrual(chunk, mid, to));
+        }
+    }
+}
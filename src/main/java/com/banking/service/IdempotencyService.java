@@ -0,0 +1,244 @@
+package com.banking.service;
+
+import com.banking.entity.IdempotencyRecord;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. The first request with a key runs; requests racing it
+ * wait for its response and later ones get the stored response back, without running again. Responses live in a
+ * bounded in-memory cache that expires them after {@code ttl-seconds}. With the {@link IdempotencyStore#DATABASE}
+ * store a key is also claimed in the idempotency_record table so that every node sees it.
+ *
+ * <p>Rejected and failed requests are not stored, so a retry with the same key runs again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_MILLIS = 20;
+
+    private final IdempotencyRecordRepository recordRepo;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate txTemplate;
+    private final Cache<String, Entry> entries;
+    private final boolean database;
+    private final long ttlSeconds;
+    private final long waitMillis;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepo,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${banking.idempotency.store:MEMORY}") IdempotencyStore store,
+                              @Value("${banking.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${banking.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                              @Value("${banking.idempotency.wait-ms:5000}") long waitMillis) {
+        this.recordRepo = recordRepo;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.database = store == IdempotencyStore.DATABASE;
+        this.ttlSeconds = ttlSeconds;
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * @param fingerprint identifies the operation and its arguments; reusing a key for a different one is rejected
+     */
+    public <T> ResponseEntity<T> execute(String key, Supplier<String> fingerprint, Class<T> bodyType, Call<T> call) throws BadRequestException {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " should be between 1 and " + MAX_KEY_LENGTH + " characters.", HttpStatus.BAD_REQUEST);
+        }
+        String requestFingerprint = fingerprint.get();
+        Entry fresh = new Entry(requestFingerprint);
+        Entry existing = entries.asMap().putIfAbsent(key, fresh);
+        if (existing != null) {
+            return existing.replay(requestFingerprint, waitMillis);
+        }
+        try {
+            ResponseEntity<T> response = database ? executeOnce(key, requestFingerprint, bodyType, call) : call.run();
+            fresh.result.complete(response);
+            return response;
+        } catch (BadRequestException | RuntimeException ex) {
+            entries.asMap().remove(key, fresh);
+            fresh.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        if (database) {
+            recordRepo.deleteCreatedBefore(Timestamp.from(Instant.now().minusSeconds(ttlSeconds)));
+        }
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private <T> ResponseEntity<T> executeOnce(String key, String fingerprint, Class<T> bodyType, Call<T> call) throws BadRequestException {
+        String fingerprintHash = sha256(fingerprint);
+        if (!claim(key, fingerprintHash)) {
+            return awaitStored(key, fingerprintHash, bodyType);
+        }
+        ResponseEntity<T> response;
+        try {
+            response = call.run();
+        } catch (BadRequestException | RuntimeException ex) {
+            txTemplate.executeWithoutResult(status -> recordRepo.deleteById(key));
+            throw ex;
+        }
+        String body = toJson(response.getBody());
+        txTemplate.executeWithoutResult(status -> {
+            IdempotencyRecord record = recordRepo.findById(key).orElseGet(() -> new IdempotencyRecord(key, fingerprintHash));
+            record.setStatusCode(response.getStatusCodeValue());
+            record.setResponseBody(body);
+            recordRepo.save(record);
+        });
+        return response;
+    }
+
+    private boolean claim(String key, String fingerprintHash) {
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                entityManager.persist(new IdempotencyRecord(key, fingerprintHash));
+                entityManager.flush();
+            });
+            return true;
+        } catch (PersistenceException | DataIntegrityViolationException ex) {
+            return false;
+        }
+    }
+
+    private <T> ResponseEntity<T> awaitStored(String key, String fingerprintHash, Class<T> bodyType) throws BadRequestException {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (true) {
+            Optional<IdempotencyRecord> stored = recordRepo.findById(key);
+            if (!stored.isPresent()) {
+                throw new BadRequestException("The earlier request with this " + HEADER + " failed. Please retry.", HttpStatus.CONFLICT);
+            }
+            IdempotencyRecord record = stored.get();
+            if (!record.getFingerprint().equals(fingerprintHash)) {
+                throw reusedKey();
+            }
+            if (record.getResponseBody() != null) {
+                return ResponseEntity.status(record.getStatusCode()).body(fromJson(record.getResponseBody(), bodyType));
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw stillRunning();
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw stillRunning();
+            }
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response cannot be stored for replay", ex);
+        }
+    }
+
+    private <T> T fromJson(String body, Class<T> bodyType) {
+        try {
+            return objectMapper.readValue(body, bodyType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response cannot be replayed", ex);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static BadRequestException reusedKey() {
+        return new BadRequestException(HEADER + " was already used for a different request.", HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    private static BadRequestException stillRunning() {
+        return new BadRequestException("A request with this " + HEADER + " is still being processed. Please retry.", HttpStatus.CONFLICT);
+    }
+
+    /**
+     * The request to run once, may reject it with a {@link BadRequestException}.
+     */
+    public interface Call<T> {
+        ResponseEntity<T> run() throws BadRequestException;
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> ResponseEntity<T> replay(String requestFingerprint, long waitMillis) throws BadRequestException {
+            if (!fingerprint.equals(requestFingerprint)) {
+                throw reusedKey();
+            }
+            try {
+                return (ResponseEntity<T>) result.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof BadRequestException) {
+                    throw (BadRequestException) ex.getCause();
+                }
+                throw new IllegalStateException("The earlier request with this " + HEADER + " failed", ex.getCause());
+            } catch (TimeoutException ex) {
+                throw stillRunning();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw stillRunning();
+            }
+        }
+    }
+}
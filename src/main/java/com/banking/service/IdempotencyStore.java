@@ -0,0 +1,11 @@
+package com.banking.service;
+
+/**
+ * Where {@link IdempotencyService} keeps the keys it has seen.
+ */
+public enum IdempotencyStore {
+    /** Bounded cache in this process only, enough for a single node. */
+    MEMORY,
+    /** Also claimed in the idempotency_record table, so a key is honored across nodes. */
+    DATABASE
+}
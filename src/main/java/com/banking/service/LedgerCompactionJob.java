@@ -0,0 +1,29 @@
+package com.banking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds pending ledger entries into the account snapshots in the background so reads and withdrawals only
+ * have to sum a short tail.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.concurrency.mode", havingValue = "LEDGER")
+public class LedgerCompactionJob {
+
+    private final LedgerService ledgerService;
+    private final int batchSize;
+
+    public LedgerCompactionJob(LedgerService ledgerService,
+                               @Value("${banking.ledger.compaction-batch:500}") int batchSize) {
+        this.ledgerService = ledgerService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.ledger.compaction-interval-ms:1000}")
+    public void compact() {
+        ledgerService.compact(batchSize);
+    }
+}
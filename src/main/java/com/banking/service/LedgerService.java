@@ -0,0 +1,185 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.entity.AccountTransaction;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Balance changes kept as an append-only list of {@link AccountTransaction} rows when running in
+ * {@link ConcurrencyMode#LEDGER}. The balance on the account row is a snapshot of every entry up to its
+ * {@code compactedTxnId}; the current balance is the snapshot plus the entries after it. Ledger rows are never
+ * updated. Deposits only insert, so they never wait on the account row. Withdrawals, compaction and anything
+ * else that changes the snapshot lock the row first.
+ * <p>
+ * The watermark relies on an entry with a lower id never committing after a higher one has been folded. Folding
+ * takes a per-stripe write lock that waits for the deposits in flight on that stripe, and entry ids are taken
+ * one at a time from the database sequence, so like {@link ConcurrencyMode#STRIPED} this is only safe when one
+ * node writes the ledger.
+ */
+@Service
+public class LedgerService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final AccountRepository accountRepo;
+    private final AccountTransactionRepository transactionRepo;
+    private final TransactionTemplate txTemplate;
+    private final boolean enabled;
+    private final ReadWriteLock[] stripes = new ReadWriteLock[LOCK_STRIPES];
+
+    public LedgerService(AccountRepository accountRepo,
+                         AccountTransactionRepository transactionRepo,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${banking.concurrency.mode:ATOMIC}") ConcurrencyMode mode) {
+        this.accountRepo = accountRepo;
+        this.transactionRepo = transactionRepo;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = mode == ConcurrencyMode.LEDGER;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Account currentAccount(Long accountNum) {
+        return enabled ? withPending(accountNum) : accountRepo.findByAccountNum(accountNum);
+    }
+
+    Account deposit(Long accountNum, long amount) throws BadRequestException {
+        // held until the entry is committed, so a fold on this stripe cannot move the watermark past it
+        Lock lock = stripeFor(accountNum).readLock();
+        lock.lock();
+        Account response;
+        try {
+            response = txTemplate.execute(status -> {
+                if (accountRepo.findByAccountNum(accountNum) == null) {
+                    return null;
+                }
+                transactionRepo.save(new AccountTransaction(accountNum, amount));
+                return withPending(accountNum);
+            });
+        } finally {
+            lock.unlock();
+        }
+        if (response == null) {
+            throw AccountBalanceService.accountNotFound(accountNum);
+        }
+        return response;
+    }
+
+    Account withdraw(Account lockedAcct, long amount) throws BadRequestException {
+        long balance = lockedAcct.getBalancePaise() + transactionRepo.sumPendingByAccountNum(lockedAcct.getAccountNum());
+        AccountBalanceService.checkWithdrawal(balance, amount);
+        transactionRepo.save(new AccountTransaction(lockedAcct.getAccountNum(), -amount));
+        return lockedAcct.withBalancePaise(balance - amount);
+    }
+
+    /**
+     * Rolls the pending entries of accounts already locked by the caller into their snapshot balance and moves
+     * their watermark past them. Returns the number of entries folded.
+     */
+    public int foldPending(Collection<Account> lockedAccts) {
+        if (!enabled || lockedAccts.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Account> byAccountNum = new HashMap<>();
+        SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Account acct : lockedAccts) {
+            byAccountNum.put(acct.getAccountNum(), acct);
+            stripeIndexes.add(stripeIndex(acct.getAccountNum()));
+        }
+        List<AccountTransaction> pending;
+        // lowest stripe first, so two folds cannot wait on each other
+        for (int i : stripeIndexes) {
+            stripes[i].writeLock().lock();
+        }
+        try {
+            pending = transactionRepo.findPendingByAccountNumIn(byAccountNum.keySet());
+        } finally {
+            for (int i : stripeIndexes) {
+                stripes[i].writeLock().unlock();
+            }
+        }
+        for (AccountTransaction txn : pending) {
+            Account acct = byAccountNum.get(txn.getAccountNum());
+            acct.setBalancePaise(acct.getBalancePaise() + txn.getAmountPaise());
+            acct.setCompactedTxnId(Math.max(acct.getCompactedTxnId(), txn.getTxnId()));
+        }
+        return pending.size();
+    }
+
+    /**
+     * Folds the pending entries of every account, walking the accounts once in account number order
+     * {@code batchSize} at a time. Entries written behind the walk are left for the next call. Returns the
+     * number of entries folded.
+     */
+    public long compact(int batchSize) {
+        if (!enabled) {
+            return 0;
+        }
+        long folded = 0;
+        long afterAccountNum = 0;
+        while (true) {
+            List<Long> accountNums = new ArrayList<>(
+                    transactionRepo.findAccountNumsWithPending(afterAccountNum, PageRequest.of(0, batchSize)));
+            if (accountNums.isEmpty()) {
+                return folded;
+            }
+            // sharded storage returns a page per shard; past the first batchSize a shard may have skipped some
+            Collections.sort(accountNums);
+            accountNums = accountNums.subList(0, Math.min(batchSize, accountNums.size()));
+            for (Long accountNum : accountNums) {
+                folded += txTemplate.execute(status -> {
+                    Account acct = accountRepo.findForUpdateByAccountNum(accountNum);
+                    return acct != null ? foldPending(Collections.singletonList(acct)) : 0;
+                });
+            }
+            afterAccountNum = accountNums.get(accountNums.size() - 1);
+        }
+    }
+
+    public List<AccountTransaction> statement(Long accountNum, int page, int size) {
+        return transactionRepo.findByAccountNumOrderByCreateDateDescTxnIdDesc(accountNum, PageRequest.of(page, size));
+    }
+
+    private Account withPending(Long accountNum) {
+        List<Object[]> rows = accountRepo.findWithPendingByAccountNum(accountNum);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Account acct = (Account) rows.get(0)[0];
+        return acct.withBalancePaise(acct.getBalancePaise() + ((Number) rows.get(0)[1]).longValue());
+    }
+
+    private ReadWriteLock stripeFor(Long accountNum) {
+        return stripes[stripeIndex(accountNum)];
+    }
+
+    private static int stripeIndex(Long accountNum) {
+        int h = accountNum.hashCode();
+        h ^= (h >>> 16);
+        return h & (LOCK_STRIPES - 1);
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.service;
+
+import com.banking.exception.RateLimitException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link TokenBucket} per client and one per account number. Buckets are created on first use and dropped
+ * after {@code idle-seconds} without a request, or once {@code max-buckets} is reached, so memory stays bounded
+ * however many clients and accounts are seen. A dropped bucket comes back full, which an idle key has earned.
+ */
+@Service
+public class RateLimiter {
+
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Cache<Long, TokenBucket> accountBuckets;
+    private final double clientRate;
+    private final int clientBurst;
+    private final double accountRate;
+    private final int accountBurst;
+
+    public RateLimiter(@Value("${banking.rate-limit.client.requests-per-second:200}") double clientRate,
+                       @Value("${banking.rate-limit.client.burst:400}") int clientBurst,
+                       @Value("${banking.rate-limit.account.requests-per-second:20}") double accountRate,
+                       @Value("${banking.rate-limit.account.burst:40}") int accountBurst,
+                       @Value("${banking.rate-limit.max-buckets:100000}") long maxBuckets,
+                       @Value("${banking.rate-limit.idle-seconds:60}") long idleSeconds) {
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.accountRate = accountRate;
+        this.accountBurst = accountBurst;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .build();
+        this.accountBuckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public void checkClient(String client) throws RateLimitException {
+        long now = System.nanoTime();
+        long wait = clientBuckets.get(client, k -> new TokenBucket(clientRate, clientBurst, now)).tryTake(now);
+        if (wait > 0) {
+            throw new RateLimitException("Too many requests from this client. Please slow down.", retryAfterSeconds(wait));
+        }
+    }
+
+    public void checkAccount(Long accountNum) throws RateLimitException {
+        long now = System.nanoTime();
+        long wait = accountBuckets.get(accountNum, k -> new TokenBucket(accountRate, accountBurst, now)).tryTake(now);
+        if (wait > 0) {
+            throw new RateLimitException("Too many requests for account " + accountNum + ". Please slow down.", retryAfterSeconds(wait));
+        }
+    }
+
+    long bucketCount() {
+        clientBuckets.cleanUp();
+        accountBuckets.cleanUp();
+        return clientBuckets.estimatedSize() + accountBuckets.estimatedSize();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
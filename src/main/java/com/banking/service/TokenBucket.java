@@ -0,0 +1,40 @@
+package com.banking.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp, the time at which the bucket will be full again (the GCRA form of
+ * the algorithm). Taking a token is one compare-and-set with no lock and no refill thread.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * A full bucket as of {@code now}, a {@link System#nanoTime()} reading.
+     */
+    TokenBucket(double tokensPerSecond, int capacity, long now) {
+        this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token and returns 0, or returns how many nanoseconds to wait for the next one.
+     */
+    long tryTake(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + nanosPerToken;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
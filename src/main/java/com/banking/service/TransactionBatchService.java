@@ -0,0 +1,120 @@
+package com.banking.service;
+
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransactionResult;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Money;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies a list of deposits and withdrawals grouped per account. Accounts are locked in account number
+ * order a chunk at a time and the balance changes are flushed as batched JDBC updates on commit.
+ */
+@Service
+public class TransactionBatchService {
+
+    private final AccountRepository accountRepo;
+    private final LedgerService ledgerService;
+    private final TransactionTemplate txTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public TransactionBatchService(AccountRepository accountRepo,
+                                   LedgerService ledgerService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${banking.batch.chunk-size:500}") int chunkSize,
+                                   @Value("${banking.batch.max-items:10000}") int maxItems) {
+        this.accountRepo = accountRepo;
+        this.ledgerService = ledgerService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public List<TransactionResult> apply(List<TransactionRequest> requests) throws BadRequestException {
+        if (requests.size() > maxItems) {
+            throw new BadRequestException("A batch should not contain more than " + maxItems + " transactions.", HttpStatus.BAD_REQUEST);
+        }
+        TransactionResult[] results = new TransactionResult[requests.size()];
+        Map<Long, List<Integer>> itemsByAccount = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest req = requests.get(i);
+            try {
+                validate(req);
+                itemsByAccount.computeIfAbsent(req.getAccountNum(), k -> new ArrayList<>()).add(i);
+            } catch (BadRequestException ex) {
+                results[i] = TransactionResult.rejected(i, req.getAccountNum(), ex.getErrorMessage());
+            }
+        }
+
+        List<Long> accountNums = new ArrayList<>(itemsByAccount.keySet());
+        for (int from = 0; from < accountNums.size(); from += chunkSize) {
+            List<Long> chunk = accountNums.subList(from, Math.min(from + chunkSize, accountNums.size()));
+            txTemplate.execute(status -> {
+                applyChunk(chunk, itemsByAccount, requests, results);
+                return null;
+            });
+        }
+        return Arrays.asList(results);
+    }
+
+    private void applyChunk(List<Long> chunk, Map<Long, List<Integer>> itemsByAccount,
+                            List<TransactionRequest> requests, TransactionResult[] results) {
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account acct : accountRepo.findForUpdateByAccountNumIn(chunk)) {
+            accounts.put(acct.getAccountNum(), acct);
+        }
+        ledgerService.foldPending(accounts.values());
+        for (Long accountNum : chunk) {
+            Account acct = accounts.get(accountNum);
+            for (int i : itemsByAccount.get(accountNum)) {
+                try {
+                    if (acct == null) {
+                        throw AccountBalanceService.accountNotFound(accountNum);
+                    }
+                    applyItem(acct, requests.get(i));
+                    results[i] = TransactionResult.applied(i, accountNum, acct.getBalanceAmt());
+                } catch (BadRequestException ex) {
+                    results[i] = TransactionResult.rejected(i, accountNum, ex.getErrorMessage());
+                }
+            }
+        }
+    }
+
+    private static void applyItem(Account acct, TransactionRequest req) throws BadRequestException {
+        long amount = Money.ofRupees(req.getAmount());
+        if (req.getType() == TransactionType.WITHDRAW) {
+            AccountBalanceService.checkWithdrawal(acct.getBalancePaise(), amount);
+            acct.setBalancePaise(acct.getBalancePaise() - amount);
+        } else {
+            acct.setBalancePaise(acct.getBalancePaise() + amount);
+        }
+    }
+
+    private static void validate(TransactionRequest req) throws BadRequestException {
+        if (req.getType() == null || req.getAccountNum() == null) {
+            throw new BadRequestException("Transaction type and account number are required.", HttpStatus.BAD_REQUEST);
+        }
+        long amount = Money.ofRupees(req.getAmount());
+        if (amount <= 0) {
+            throw new BadRequestException("Transaction amount should be greater than Rs.0.0.", HttpStatus.BAD_REQUEST);
+        }
+        if (req.getType() == TransactionType.DEPOSIT) {
+            AccountBalanceService.checkDepositLimit(amount);
+        }
+    }
+}
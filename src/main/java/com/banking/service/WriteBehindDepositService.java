@@ -0,0 +1,172 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.entity.DeadLetterDeposit;
+import com.banking.entity.JournalCheckpoint;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.DeadLetterDepositRepository;
+import com.banking.repository.JournalCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind deposits: a deposit is acknowledged once it is durable in the local {@link DepositJournal} and
+ * a background writer later applies the journal to the database, one transaction per drain with the deposits
+ * summed per account. The sequence of the last applied record is committed with the balances, so replaying
+ * the journal on startup applies every acknowledged deposit exactly once. Deposits to an account deleted after
+ * they were acknowledged are moved to the {@link DeadLetterDeposit} table in the same transaction.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.deposit.write-behind.enabled", havingValue = "true")
+public class WriteBehindDepositService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindDepositService.class);
+
+    private final AccountRepository accountRepo;
+    private final JournalCheckpointRepository checkpointRepo;
+    private final DeadLetterDepositRepository deadLetterRepo;
+    private final LedgerService ledgerService;
+    private final AccountCache accountCache;
+    private final TransactionTemplate txTemplate;
+    private final Path journalPath;
+    private final int capacity;
+    private final int maxBatch;
+    private final Map<Long, Long> pendingPaise = new ConcurrentHashMap<>();
+
+    private DepositJournal journal;
+    private volatile long appliedSeq;
+
+    public WriteBehindDepositService(AccountRepository accountRepo,
+                                     JournalCheckpointRepository checkpointRepo,
+                                     DeadLetterDepositRepository deadLetterRepo,
+                                     LedgerService ledgerService,
+                                     AccountCache accountCache,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${banking.deposit.journal.path:data/deposit-journal.bin}") String journalPath,
+                                     @Value("${banking.deposit.journal.capacity:1048576}") int capacity,
+                                     @Value("${banking.deposit.write-behind.max-batch:5000}") int maxBatch) {
+        this.accountRepo = accountRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.deadLetterRepo = deadLetterRepo;
+        this.ledgerService = ledgerService;
+        this.accountCache = accountCache;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.journalPath = Paths.get(journalPath).toAbsolutePath();
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Opens the journal and applies whatever an earlier run acknowledged but did not write, before the web
+     * server starts taking requests.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        JournalCheckpoint checkpoint = txTemplate.execute(status -> checkpointRepo.findById(checkpointName())
+                .orElseGet(() -> checkpointRepo.save(new JournalCheckpoint(checkpointName(), 0L))));
+        journal = new DepositJournal(journalPath, capacity);
+        appliedSeq = checkpoint.getAppliedSeq();
+        long recoveredSeq = journal.recover(appliedSeq);
+        for (DepositJournal.Entry entry : journal.read(appliedSeq, recoveredSeq)) {
+            pendingPaise.merge(entry.accountNum, entry.amountPaise, WriteBehindDepositService::sumOrRemove);
+        }
+        while (drain() > 0) {
+            // replay until the journal is empty
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        while (drain() > 0) {
+            // write out everything acknowledged so far
+        }
+        journal.close();
+    }
+
+    public Account deposit(Long accountNum, long depositAmount) throws BadRequestException {
+        AccountBalanceService.checkDepositLimit(depositAmount);
+        // the cached account can outlive a delete by the cache TTL, so existence is checked on the database
+        Account acct = accountRepo.existsByAccountNum(accountNum) ? accountCache.get(accountNum) : null;
+        if (acct == null) {
+            throw AccountBalanceService.accountNotFound(accountNum);
+        }
+        // counted as pending before the writer can see the record, so its decrement never comes first
+        pendingPaise.merge(accountNum, depositAmount, WriteBehindDepositService::sumOrRemove);
+        long seq = journal.append(accountNum, depositAmount);
+        if (seq < 0) {
+            pendingPaise.merge(accountNum, -depositAmount, WriteBehindDepositService::sumOrRemove);
+            throw new BadRequestException("Deposit journal is full. Please retry.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        journal.awaitDurable(seq);
+        return acct.withBalancePaise(acct.getBalancePaise() + pendingPaise.getOrDefault(accountNum, 0L));
+    }
+
+    /**
+     * Applies up to {@code max-batch} durable records in one transaction and returns how many were applied.
+     */
+    @Scheduled(fixedDelayString = "${banking.deposit.write-behind.flush-interval-ms:50}")
+    public synchronized int drain() {
+        long fromSeq = appliedSeq;
+        long toSeq = Math.min(journal.durableSeq(), fromSeq + maxBatch);
+        if (toSeq <= fromSeq) {
+            return 0;
+        }
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (DepositJournal.Entry entry : journal.read(fromSeq, toSeq)) {
+            deltas.merge(entry.accountNum, entry.amountPaise, Long::sum);
+        }
+        txTemplate.execute(status -> {
+            Map<Long, Account> accounts = new HashMap<>();
+            for (Account acct : accountRepo.findForUpdateByAccountNumIn(deltas.keySet())) {
+                accounts.put(acct.getAccountNum(), acct);
+            }
+            ledgerService.foldPending(accounts.values());
+            for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                Account acct = accounts.get(delta.getKey());
+                if (acct == null) {
+                    log.warn("Moving {} paise of journaled deposits to deleted account {} to the dead letter table",
+                            delta.getValue(), delta.getKey());
+                    deadLetterRepo.save(new DeadLetterDeposit(delta.getKey(), delta.getValue(), fromSeq, toSeq));
+                    continue;
+                }
+                acct.setBalancePaise(acct.getBalancePaise() + delta.getValue());
+            }
+            checkpointRepo.save(new JournalCheckpoint(checkpointName(), toSeq));
+            return null;
+        });
+        appliedSeq = toSeq;
+        journal.release(toSeq);
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            pendingPaise.merge(delta.getKey(), -delta.getValue(), WriteBehindDepositService::sumOrRemove);
+            accountCache.invalidate(delta.getKey());
+        }
+        return (int) (toSeq - fromSeq);
+    }
+
+    private String checkpointName() {
+        return "deposit-journal:" + journalPath;
+    }
+
+    private static Long sumOrRemove(Long current, Long delta) {
+        long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+}
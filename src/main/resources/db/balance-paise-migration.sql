@@ -0,0 +1,5 @@
+-- Moves account balances from DOUBLE rupees (balance_amt) to BIGINT paise (balance_paise).
+-- Only needed for databases created before the switch; the in-memory database is rebuilt on start.
+ALTER TABLE account ADD COLUMN IF NOT EXISTS balance_paise BIGINT DEFAULT 0 NOT NULL;
+UPDATE account SET balance_paise = CAST(ROUND(balance_amt * 100) AS BIGINT) WHERE balance_amt IS NOT NULL;
+ALTER TABLE account DROP COLUMN balance_amt;
@@ -0,0 +1,7 @@
+-- Adds the normalized name used by /banking/customers/search and indexes both name columns.
+-- Only needed for databases created before the column existed; the in-memory database is rebuilt on start.
+-- LOWER and TRIM do not strip accents; re-save customers with accented names to normalize them fully.
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS search_name VARCHAR(255);
+UPDATE customer SET search_name = LOWER(REGEXP_REPLACE(TRIM(cust_name), '\s+', ' ')) WHERE search_name IS NULL;
+CREATE INDEX IF NOT EXISTS idx_customer_search_name ON customer (search_name, cust_id);
+CREATE INDEX IF NOT EXISTS idx_customer_cust_name ON customer (cust_name);
@@ -0,0 +1,12 @@
+-- Replaces the compacted flag on ledger entries with a watermark on the account: the id of the last entry folded
+-- into balance_paise. Run with the application stopped; entries still pending are folded here first.
+ALTER TABLE account ADD COLUMN IF NOT EXISTS compacted_txn_id BIGINT DEFAULT 0 NOT NULL;
+UPDATE account a SET balance_paise = balance_paise + COALESCE((SELECT SUM(t.amount_paise) FROM account_transaction t
+    WHERE t.account_num = a.account_num AND NOT t.compacted), 0);
+UPDATE account a SET compacted_txn_id = COALESCE((SELECT MAX(t.txn_id) FROM account_transaction t
+    WHERE t.account_num = a.account_num), 0);
+DROP INDEX IF EXISTS idx_account_transaction_pending;
+ALTER TABLE account_transaction DROP COLUMN compacted;
+CREATE INDEX IF NOT EXISTS idx_account_transaction_tail ON account_transaction (account_num, txn_id);
+-- ledger ids are taken one at a time so they increase in the order entries are written
+ALTER SEQUENCE account_transaction_seq INCREMENT BY 1;
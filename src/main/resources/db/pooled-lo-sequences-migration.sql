@@ -0,0 +1,8 @@
+-- Moves ids from the shared hibernate_sequence to one sequence per entity, handed out 50 at a time (pooled-lo).
+-- Only needed for databases created before the change; each sequence starts past the highest id already used.
+CREATE SEQUENCE IF NOT EXISTS customer_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS account_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS account_transaction_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE customer_seq RESTART WITH (SELECT COALESCE(MAX(cust_id), 0) + 1 FROM customer);
+ALTER SEQUENCE account_seq RESTART WITH (SELECT COALESCE(MAX(acct_id), 0) + 1 FROM account);
+ALTER SEQUENCE account_transaction_seq RESTART WITH (SELECT COALESCE(MAX(txn_id), 0) + 1 FROM account_transaction);
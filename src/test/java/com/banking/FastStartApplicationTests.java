@@ -0,0 +1,41 @@
+package com.banking;
+
+import com.banking.service.LedgerCompactionJob;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import springfox.documentation.spring.web.plugins.Docket;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"banking.concurrency.mode=LEDGER", "spring.datasource.url=jdbc:h2:mem:faststart"})
+@ActiveProfiles("fast-start")
+class FastStartApplicationTests {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void servesAccountLookupWithoutSwaggerTest() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/banking/account?accountNum=1", String.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(context.getBeansOfType(Docket.class).isEmpty());
+        Assertions.assertFalse(context.containsBean("h2Console"));
+    }
+
+    @Test
+    void scheduledBeansStayEagerTest() {
+        Assertions.assertNotNull(((ConfigurableApplicationContext) context).getBeanFactory()
+                .getSingleton(context.getBeanNamesForType(LedgerCompactionJob.class)[0]));
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashRingTest {
+
+    private static final int KEYS = 1_000_000;
+    private static final long FIRST_ACCOUNT_NUM = 10000000000L;
+
+    @Test
+    public void spreadsSequentialAccountNumbersEvenlyTest() {
+        ConsistentHashRing ring = new ConsistentHashRing(8, 128);
+        int[] counts = new int[8];
+        for (long i = 0; i < KEYS; i++) {
+            counts[ring.shardFor(FIRST_ACCOUNT_NUM + i)]++;
+        }
+        for (int count : counts) {
+            Assertions.assertTrue(Math.abs(count - KEYS / 8) < KEYS / 8 * 0.3, "shard count " + count);
+        }
+    }
+
+    @Test
+    public void addingAShardOnlyMovesKeysToItTest() {
+        ConsistentHashRing four = new ConsistentHashRing(4, 128);
+        ConsistentHashRing five = new ConsistentHashRing(5, 128);
+        int moved = 0;
+        for (long i = 0; i < KEYS; i++) {
+            int before = four.shardFor(FIRST_ACCOUNT_NUM + i);
+            int after = five.shardFor(FIRST_ACCOUNT_NUM + i);
+            if (before != after) {
+                Assertions.assertEquals(4, after);
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved > KEYS / 10 && moved < KEYS * 3 / 10, "moved " + moved);
+    }
+
+    @Test
+    public void singleShardTakesEverythingTest() {
+        ConsistentHashRing ring = new ConsistentHashRing(1, 16);
+        Assertions.assertEquals(0, ring.shardFor(Long.MIN_VALUE));
+        Assertions.assertEquals(0, ring.shardFor(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.config;
+
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.repository.CustomerRepository;
+import com.banking.service.AccountNumberAllocator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"banking.replica.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:replica-test-primary;DB_CLOSE_DELAY=-1",
+        "banking.replica.url=jdbc:h2:mem:replica-test-replica;DB_CLOSE_DELAY=-1",
+        "banking.replica.sync-interval-ms=3600000", "banking.rate-limit.enabled=false"})
+public class ReplicaConfigurationTest {
+
+    @Autowired
+    private ReplicaSync replicaSync;
+
+    @Autowired
+    private ReplicaRouting replicaRouting;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    public void readOnlyQueriesGoToTheReplicaTest() {
+        Assertions.assertTrue(replicaRouting.replicatedUpTo() > 0, "synced at startup");
+        saveCustomer("Replicated Later");
+
+        Assertions.assertTrue(customerRepo.findByCustName("Replicated Later").isEmpty());
+        replicaSync.sync();
+        Assertions.assertEquals(1, customerRepo.findByCustName("Replicated Later").size());
+    }
+
+    @Test
+    public void consistencyTokenReadsOwnWritesTest() {
+        Long accountNum = saveCustomer("Reads Own Writes");
+        replicaSync.sync();
+
+        ResponseEntity<String> deposited = restTemplate.exchange("/banking/deposit?depositAmount=50&accountNum=" + accountNum,
+                HttpMethod.PUT, HttpEntity.EMPTY, String.class);
+        String token = deposited.getHeaders().getFirst(ReplicaRouting.TOKEN_HEADER);
+        Assertions.assertEquals(HttpStatus.OK, deposited.getStatusCode());
+        Assertions.assertNotNull(token);
+
+        Assertions.assertEquals(1000.0d, listedBalance(null));
+        Assertions.assertEquals(1050.0d, listedBalance(token));
+        replicaSync.sync();
+        Assertions.assertEquals(1050.0d, listedBalance(null));
+    }
+
+    private double listedBalance(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.set(ReplicaRouting.TOKEN_HEADER, token);
+        }
+        JsonNode customers = restTemplate.exchange("/banking/cust-accounts?customerName=Reads Own Writes", HttpMethod.GET,
+                new HttpEntity<>(headers), JsonNode.class).getBody();
+        return customers.get(0).get("accounts").get(0).get("balanceAmt").asDouble();
+    }
+
+    private Long saveCustomer(String name) {
+        Account acct = new Account();
+        acct.setAccountNum(allocator.next());
+        acct.setBalanceAmt(1000.0d);
+        Customer cust = new Customer();
+        cust.setCustName(name);
+        cust.setAccounts(new ArrayList<>(Collections.singletonList(acct)));
+        customerRepo.save(cust);
+        return acct.getAccountNum();
+    }
+}
@@ -0,0 +1,181 @@
+package com.banking.config;
+
+import com.banking.dto.EndOfDayResult;
+import com.banking.dto.ImportResult;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.CustomerRepository;
+import com.banking.service.AccountBalanceService;
+import com.banking.service.AccountNumberAllocator;
+import com.banking.service.CustomerImportService;
+import com.banking.service.EndOfDayService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest(properties = {"banking.sharding.enabled=true", "banking.sharding.shards=3",
+        "banking.sharding.url=jdbc:h2:mem:sharding-test-{shard};DB_CLOSE_DELAY=-1", "banking.rate-limit.enabled=false"})
+public class ShardingConfigurationTest {
+
+    private static final int CUSTOMERS = 60;
+
+    @Autowired
+    private ShardRouting shardRouting;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private AccountBalanceService balanceService;
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private CustomerImportService importService;
+
+    @Autowired
+    private EndOfDayService endOfDayService;
+
+    private final List<Long> accountNums = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Account acct = new Account();
+            acct.setAccountNum(allocator.next());
+            acct.setBalanceAmt(1000.0d);
+            Customer cust = new Customer();
+            cust.setCustName("Sharded");
+            cust.setAccounts(new ArrayList<>(Collections.singletonList(acct)));
+            customers.add(cust);
+            accountNums.add(acct.getAccountNum());
+        }
+        customerRepo.saveAll(customers);
+    }
+
+    @Test
+    public void accountsAndCustomersLiveOnTheirShardTest() {
+        int stored = 0;
+        for (int shard = 0; shard < shardRouting.shardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shardRouting.shard(shard));
+            List<Long> onShard = jdbc.queryForList("select account_num from account where account_num in ("
+                    + joined(accountNums) + ")", Long.class);
+            for (Long accountNum : onShard) {
+                Assertions.assertEquals(shard, shardRouting.shardFor(accountNum));
+            }
+            Assertions.assertFalse(onShard.isEmpty(), "shard " + shard);
+            Assertions.assertEquals(onShard.size(), jdbc.queryForObject("select count(*) from customer c join account a on a.cust_id = c.cust_id "
+                    + "where a.account_num in (" + joined(accountNums) + ")", Integer.class));
+            stored += onShard.size();
+        }
+        Assertions.assertEquals(CUSTOMERS, stored);
+    }
+
+    @Test
+    public void listsGatherEveryShardTest() {
+        List<Customer> byName = customerRepo.findByCustName("Sharded");
+        Set<Long> custIds = new HashSet<>();
+        Set<Long> found = new HashSet<>();
+        for (Customer cust : byName) {
+            custIds.add(cust.getCustId());
+            found.add(cust.getAccounts().get(0).getAccountNum());
+        }
+
+        Assertions.assertTrue(found.containsAll(accountNums));
+        Assertions.assertEquals(byName.size(), custIds.size(), "customer ids are unique across shards");
+        Assertions.assertTrue(customerRepo.findAll().size() >= CUSTOMERS);
+    }
+
+    @Test
+    public void depositsGoToTheAccountShardTest() throws BadRequestException {
+        for (Long accountNum : accountNums) {
+            balanceService.deposit(accountNum, 500L);
+            Assertions.assertEquals(100500L, accountRepo.findByAccountNum(accountNum).getBalancePaise());
+        }
+    }
+
+    @Test
+    public void transferAcrossShardsIsRejectedTest() {
+        Long from = accountNums.get(0);
+        Long to = accountNums.stream().filter(n -> shardRouting.shardFor(n) != shardRouting.shardFor(from)).findFirst().orElseThrow();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> balanceService.transfer(from, to, 100L));
+        Assertions.assertEquals(100000L, accountRepo.findByAccountNum(from).getBalancePaise());
+    }
+
+    @Test
+    public void importRejectsOnlyTheRowsOfAFailingShardTest() throws IOException {
+        StringBuilder csv = new StringBuilder("custName,dob,email,initialDeposit\n");
+        for (int i = 0; i < 30; i++) {
+            csv.append("Shard Import,1990-01-15,import").append(i).append("@example.com,500\n");
+        }
+        csv.append("Shard Reject,1990-01-15,reject@example.com,500\n");
+        for (int shard = 0; shard < shardRouting.shardCount(); shard++) {
+            new JdbcTemplate(shardRouting.shard(shard)).execute(
+                    "alter table customer add constraint shard_import_test check (cust_name <> 'Shard Reject')");
+        }
+        ImportResult result;
+        try {
+            // one chunk that spans every shard; only the part on the shard of the bad row fails
+            result = importService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                    importService.newRejectFile());
+        } finally {
+            for (int shard = 0; shard < shardRouting.shardCount(); shard++) {
+                new JdbcTemplate(shardRouting.shard(shard)).execute("alter table customer drop constraint shard_import_test");
+            }
+        }
+
+        List<Customer> imported = customerRepo.findByCustName("Shard Import");
+        Set<Integer> shards = new HashSet<>();
+        for (Customer cust : imported) {
+            shards.add(shardRouting.shardFor(cust.getAccounts().get(0).getAccountNum()));
+        }
+        Assertions.assertEquals(imported.size(), result.getImported());
+        Assertions.assertEquals(31, result.getImported() + result.getRejected());
+        Assertions.assertTrue(result.getRejected() > 1, "the bad row's shard-mates are rejected with it");
+        Assertions.assertEquals(shardRouting.shardCount() - 1, shards.size());
+    }
+
+    @Test
+    public void endOfDaySweepsEveryShardTest() {
+        EndOfDayResult result = endOfDayService.run(LocalDate.of(2026, 10, 19));
+
+        Assertions.assertTrue(result.getAccounts() >= CUSTOMERS, "accounts " + result.getAccounts());
+        for (Long accountNum : accountNums) {
+            // a day at 3.5% on Rs.1000 is 9 paise
+            Assertions.assertEquals(100009L, accountRepo.findByAccountNum(accountNum).getBalancePaise(), "account " + accountNum);
+        }
+        for (int shard = 0; shard < shardRouting.shardCount(); shard++) {
+            Assertions.assertEquals(1, new JdbcTemplate(shardRouting.shard(shard)).queryForObject(
+                    "select count(*) from journal_checkpoint where name = ?", Integer.class, "end-of-day:2026-10-19:shard-" + shard));
+        }
+    }
+
+    private static String joined(List<Long> accountNums) {
+        StringBuilder joined = new StringBuilder();
+        for (Long accountNum : accountNums) {
+            joined.append(joined.length() == 0 ? "" : ",").append(accountNum);
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.banking.controller;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncBankingControllerTest {
+
+    @Mock
+    private BankingController bankingController;
+
+    @Mock
+    private Account account;
+
+    @InjectMocks
+    private AsyncBankingController asyncController;
+
+    @Test
+    public void depositRunsOnRequestExecutorTest() throws Exception {
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            ReflectionTestUtils.setField(asyncController, "requestExecutor", virtualThreads);
+            boolean[] onVirtualThread = {false};
+            Mockito.when(bankingController.custAcctDeposit(100.0, 1010101010L, null)).thenAnswer(invocation -> {
+                onVirtualThread[0] = Thread.currentThread().isVirtual();
+                return ResponseEntity.ok(account);
+            });
+
+            ResponseEntity<Account> response = asyncController.custAcctDeposit(100.0, 1010101010L, null).get();
+
+            Assertions.assertEquals(account, response.getBody());
+            Assertions.assertTrue(onVirtualThread[0]);
+        }
+    }
+
+    @Test
+    public void rejectedWithdrawCompletesExceptionallyTest() throws BadRequestException {
+        ReflectionTestUtils.setField(asyncController, "requestExecutor", (Executor) Runnable::run);
+        BadRequestException rejected = new BadRequestException("Account balance should not be less than Rs.100.0. Please withdraw lesser amount.", HttpStatus.BAD_REQUEST);
+        Mockito.when(bankingController.custAcctWithdraw(1000.0, 1010101010L, null)).thenThrow(rejected);
+
+        CompletableFuture<ResponseEntity<Account>> response = asyncController.custAcctWithdraw(1000.0, 1010101010L, null);
+
+        CompletionException ex = Assertions.assertThrows(CompletionException.class, response::join);
+        Assertions.assertSame(rejected, ex.getCause());
+    }
+}
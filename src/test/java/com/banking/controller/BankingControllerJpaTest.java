@@ -0,0 +1,251 @@
+package com.banking.controller;
+
+import com.banking.dto.CustomerResponse;
+import com.banking.dto.TransactionRequest;
+import com.banking.dto.TransactionResult;
+import com.banking.dto.TransactionType;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.service.AccountBalanceService;
+import com.banking.service.AccountCache;
+import com.banking.service.AccountNumberAllocator;
+import com.banking.service.CustomerExportService;
+import com.banking.service.CustomerImportService;
+import com.banking.service.CustomerSearchService;
+import com.banking.service.CustomerUpdateService;
+import com.banking.service.IdempotencyService;
+import com.banking.service.LedgerService;
+import com.banking.service.TransactionBatchService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureJson
+@Import({BankingController.class, AccountBalanceService.class, AccountCache.class, AccountNumberAllocator.class, TransactionBatchService.class, CustomerExportService.class, CustomerSearchService.class, CustomerImportService.class, CustomerUpdateService.class, LedgerService.class, IdempotencyService.class})
+public class BankingControllerJpaTest {
+
+    @Autowired
+    private BankingController bankingController;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    private long nextAccountNum = 10000000000L;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void deleteCustAcctStatementCountIsConstantTest() {
+        long fewCustomers = statementsToDeleteOneAccount(10);
+        long manyCustomers = statementsToDeleteOneAccount(1000);
+
+        Assertions.assertEquals(2L, fewCustomers);
+        Assertions.assertEquals(fewCustomers, manyCustomers);
+    }
+
+    @Test
+    public void deleteCustAcctKeepsSiblingAccountsTest() {
+        Customer cust = newCustomer("Vikram", 2);
+        entityManager.persist(cust);
+        entityManager.flush();
+        entityManager.clear();
+
+        Long deleted = cust.getAccounts().get(0).getAccountNum();
+        Long kept = cust.getAccounts().get(1).getAccountNum();
+        bankingController.deleteCustAcct(deleted);
+
+        Assertions.assertNull(accountRepo.findByAccountNum(deleted));
+        Assertions.assertNotNull(accountRepo.findByAccountNum(kept));
+    }
+
+    @Test
+    public void updateCustAcctAppliesEditedListResponseTest() throws BadRequestException {
+        Customer cust = newCustomer("Vikram", 2);
+        entityManager.persist(cust);
+        entityManager.flush();
+        entityManager.clear();
+
+        // what a client reads carries no row ids or versions; it is edited and sent back as is
+        CustomerResponse edited = bankingController.getCustomerAcct("Vikram", null).getBody().get(0);
+        edited.setEmail("vikram@example.com");
+        edited.getAccounts().get(1).setBalanceAmt(2500.0d);
+        CustomerResponse response = bankingController.updateCustAcct(edited).getBody();
+        entityManager.flush();
+        entityManager.clear();
+
+        Assertions.assertEquals("vikram@example.com", response.getEmail());
+        Assertions.assertEquals(2, accountRepo.count());
+        Assertions.assertEquals(100000L, accountRepo.findByAccountNum(edited.getAccounts().get(0).getAccountNum()).getBalancePaise());
+        Assertions.assertEquals(250000L, accountRepo.findByAccountNum(edited.getAccounts().get(1).getAccountNum()).getBalancePaise());
+
+        edited.getAccounts().get(0).setAccountNum(1L);
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class, () -> bankingController.updateCustAcct(edited));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        edited.setCustId(-1L);
+        ex = Assertions.assertThrows(BadRequestException.class, () -> bankingController.updateCustAcct(edited));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    public void withdrawRulesEnforcedByConditionalUpdateTest() throws BadRequestException {
+        Customer cust = newCustomer("Vikram", 1);
+        entityManager.persist(cust);
+        entityManager.flush();
+        entityManager.clear();
+        Long accountNum = cust.getAccounts().get(0).getAccountNum();
+
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctWithdraw(910.0, accountNum, null));
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctDeposit(10010.0, accountNum, null));
+
+        statistics.clear();
+        ResponseEntity<Account> withdrawn = bankingController.custAcctWithdraw(900.0, accountNum, null);
+        Assertions.assertEquals(100.0d, withdrawn.getBody().getBalanceAmt());
+        Assertions.assertEquals(2L, statistics.getPrepareStatementCount());
+
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctWithdraw(1.0, accountNum, null));
+        ResponseEntity<Account> deposited = bankingController.custAcctDeposit(50.0, accountNum, null);
+        Assertions.assertEquals(150.0d, deposited.getBody().getBalanceAmt());
+    }
+
+    @Test
+    public void idempotentDepositReplayRunsNoStatementsTest() throws BadRequestException {
+        Customer cust = newCustomer("Vikram", 1);
+        entityManager.persist(cust);
+        entityManager.flush();
+        entityManager.clear();
+        Long accountNum = cust.getAccounts().get(0).getAccountNum();
+
+        ResponseEntity<Account> deposited = bankingController.custAcctDeposit(50.0, accountNum, "deposit-" + accountNum);
+        statistics.clear();
+        ResponseEntity<Account> replayed = bankingController.custAcctDeposit(50.0, accountNum, "deposit-" + accountNum);
+
+        Assertions.assertSame(deposited.getBody(), replayed.getBody());
+        Assertions.assertEquals(0L, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        Assertions.assertEquals(105000L, accountRepo.findByAccountNum(accountNum).getBalancePaise());
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> bankingController.custAcctWithdraw(50.0, accountNum, "deposit-" + accountNum));
+        Assertions.assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatusCode());
+    }
+
+    @Test
+    public void transactionBatchUsesBatchedUpdatesTest() throws BadRequestException {
+        int accountCount = 200;
+        List<TransactionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            Customer cust = newCustomer("Batch" + i, 1);
+            entityManager.persist(cust);
+            Long accountNum = cust.getAccounts().get(0).getAccountNum();
+            batch.add(new TransactionRequest(TransactionType.DEPOSIT, accountNum, 500.0d));
+            batch.add(new TransactionRequest(TransactionType.WITHDRAW, accountNum, 1000.0d));
+        }
+        Long firstAccountNum = batch.get(0).getAccountNum();
+        batch.add(new TransactionRequest(TransactionType.WITHDRAW, firstAccountNum, 450.0d));
+        batch.add(new TransactionRequest(TransactionType.DEPOSIT, firstAccountNum, 10010.0d));
+        batch.add(new TransactionRequest(TransactionType.DEPOSIT, 1L, 100.0d));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<TransactionResult> results = bankingController.applyTransactionBatch(batch).getBody();
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        Assertions.assertEquals(batch.size(), results.size());
+        Assertions.assertEquals(TransactionResult.Status.APPLIED, results.get(1).getStatus());
+        Assertions.assertEquals(500.0d, results.get(1).getBalanceAmt());
+        Assertions.assertEquals(TransactionResult.Status.REJECTED, results.get(2 * accountCount).getStatus());
+        Assertions.assertEquals(TransactionResult.Status.REJECTED, results.get(2 * accountCount + 1).getStatus());
+        Assertions.assertEquals(TransactionResult.Status.REJECTED, results.get(2 * accountCount + 2).getStatus());
+        Assertions.assertTrue(statements <= 1 + accountCount / 50, "statements: " + statements);
+
+        entityManager.clear();
+        Assertions.assertEquals(50000L, accountRepo.findByAccountNum(firstAccountNum).getBalancePaise());
+    }
+
+    @Test
+    public void listEndpointsUseOneQueryRegardlessOfSizeTest() {
+        Assertions.assertEquals(1L, statementsToListCustomers(5));
+        Assertions.assertEquals(1L, statementsToListCustomers(50));
+    }
+
+    private long statementsToListCustomers(int customerCount) {
+        for (int i = 0; i < customerCount; i++) {
+            entityManager.persist(newCustomer("Same Name", 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        List<CustomerResponse> all = bankingController.getAllCustomerAccts(null).getBody();
+        int accounts = all.stream().mapToInt(cust -> cust.getAccounts().size()).sum();
+        long allStatements = statistics.getPrepareStatementCount();
+        Assertions.assertEquals(2 * all.size(), accounts);
+        entityManager.clear();
+
+        statistics.clear();
+        List<CustomerResponse> byName = bankingController.getCustomerAcct("Same Name", null).getBody();
+        accounts = byName.stream().mapToInt(cust -> cust.getAccounts().size()).sum();
+        Assertions.assertEquals(2 * byName.size(), accounts);
+        Assertions.assertEquals(allStatements, statistics.getPrepareStatementCount());
+        entityManager.clear();
+        return allStatements;
+    }
+
+    private long statementsToDeleteOneAccount(int customerCount) {
+        Long accountNum = null;
+        for (int i = 0; i < customerCount; i++) {
+            Customer cust = newCustomer("Customer" + i, 1);
+            entityManager.persist(cust);
+            accountNum = cust.getAccounts().get(0).getAccountNum();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        ResponseEntity<Account> response = bankingController.deleteCustAcct(accountNum);
+
+        long statements = statistics.getPrepareStatementCount();
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(accountNum, response.getBody().getAccountNum());
+        return statements;
+    }
+
+    private Customer newCustomer(String name, int accountCount) {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            Account acct = new Account();
+            acct.setAccountNum(nextAccountNum++);
+            acct.setBalanceAmt(1000.0d);
+            accounts.add(acct);
+        }
+        Customer cust = new Customer();
+        cust.setCustName(name);
+        cust.setAccounts(accounts);
+        return cust;
+    }
+}
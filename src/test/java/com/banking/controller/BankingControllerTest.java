@@ -1,10 +1,18 @@
 package com.banking.controller;
 
+import com.banking.dto.AccountResponse;
+import com.banking.dto.CustomerResponse;
+import com.banking.dto.TransferResult;
 import com.banking.entity.Account;
 import com.banking.entity.Customer;
 import com.banking.exception.BadRequestException;
 import com.banking.repository.AccountRepository;
 import com.banking.repository.CustomerRepository;
+import com.banking.service.AccountBalanceService;
+import com.banking.service.AccountCache;
+import com.banking.service.AccountNumberAllocator;
+import com.banking.service.CustomerUpdateService;
+import com.banking.service.LedgerService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +20,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +34,21 @@ public class BankingControllerTest {
     @Mock
     private AccountRepository accountRepo;
 
+    @Mock
+    private AccountBalanceService balanceService;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private CustomerUpdateService updateService;
+
     @Mock
     private Account account;
 
@@ -37,48 +60,51 @@ public class BankingControllerTest {
 
     @Test
     public void getCustAcctsTest() {
-        Mockito.when(accountRepo.findByAccountNum(Mockito.anyLong())).thenReturn(account);
-        bankingController.getCustomer(1L);
-        Assertions.assertNotNull(account);
+        Mockito.when(accountCache.get(Mockito.anyLong())).thenReturn(account);
+        Mockito.when(account.getAccountNum()).thenReturn(1L);
+        ResponseEntity<AccountResponse> res = bankingController.getCustomer(1L, null);
+        Assertions.assertEquals(1L, res.getBody().getAccountNum());
     }
 
     @Test
     public void getNoCustAcctsTest() {
         Account res = null;
-        Mockito.when(accountRepo.findByAccountNum(Mockito.anyLong())).thenReturn(res);
-        bankingController.getCustomer(1L);
+        Mockito.when(accountCache.get(Mockito.anyLong())).thenReturn(res);
+        bankingController.getCustomer(1L, null);
         Assertions.assertNull(res);
     }
 
     @Test
     public void getAllCustomerAcctsTest() {
-        List<Customer> res = Mockito.mock(List.class);
+        List<Customer> res = Collections.singletonList(customer);
         Mockito.when(customerRepo.findAll()).thenReturn(res);
-        bankingController.getAllCustomerAccts();
-        Assertions.assertNotNull(res);
+        List<CustomerResponse> body = bankingController.getAllCustomerAccts(null).getBody();
+        Assertions.assertEquals(1, body.size());
     }
 
     @Test
     public void getAllCustomerAcctsAsZeroTest() {
         List<Customer> res = Collections.emptyList();
         Mockito.when(customerRepo.findAll()).thenReturn(res);
-        bankingController.getAllCustomerAccts();
+        bankingController.getAllCustomerAccts(null);
         Assertions.assertEquals(res.size(), 0);
     }
 
     @Test
     public void getCustomerAcctByCustNameTest() {
-        List<Customer> res = Mockito.mock(List.class);
+        List<Customer> res = Collections.singletonList(customer);
         Mockito.when(customerRepo.findByCustName(Mockito.anyString())).thenReturn(res);
-        bankingController.getCustomerAcct("Vikram");
-        Assertions.assertNotNull(res);
+        Mockito.when(customer.getCustName()).thenReturn("Vikram");
+        List<CustomerResponse> body = bankingController.getCustomerAcct("Vikram", "custName").getBody();
+        Assertions.assertEquals("Vikram", body.get(0).getCustName());
+        Assertions.assertNull(body.get(0).getAccounts());
     }
 
     @Test
     public void getNoCustomerAcctByCustNameTest() {
         List<Customer> res = Collections.emptyList();
         Mockito.when(customerRepo.findByCustName(Mockito.anyString())).thenReturn(res);
-        bankingController.getCustomerAcct("Vikram");
+        bankingController.getCustomerAcct("Vikram", null);
         Assertions.assertEquals(res.size(), 0);
     }
 
@@ -88,8 +114,9 @@ public class BankingControllerTest {
         Mockito.when(customer.getAccounts()).thenReturn(res);
         Mockito.when(customer.getAccounts().get(0)).thenReturn(account);
         Mockito.when(customerRepo.save(customer)).thenReturn(customer);
-        bankingController.createCustAcct(customer);
-        Assertions.assertNotNull(customer);
+        Mockito.when(accountNumberAllocator.next()).thenReturn(10000000009L);
+        bankingController.createCustAcct(customer, null);
+        Mockito.verify(account).setAccountNum(10000000009L);
     }
 
     @Test
@@ -97,109 +124,112 @@ public class BankingControllerTest {
         List<Account> res = Mockito.mock(List.class);
         Mockito.when(customer.getAccounts()).thenReturn(res);
         Mockito.when(customer.getAccounts().get(0)).thenReturn(account);
-        Mockito.when(account.getBalanceAmt()).thenReturn(10010.0d);
-        Assertions.assertThrows(BadRequestException.class, () -> bankingController.createCustAcct(customer));
+        Mockito.when(account.getBalancePaise()).thenReturn(1001000L);
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.createCustAcct(customer, null));
     }
 
     @Test
-    public void updateCustomerAcctTest() {
-        Mockito.when(customerRepo.save(customer)).thenReturn(customer);
-        bankingController.updateCustAcct(customer);
-        Assertions.assertNotNull(customer);
+    public void withdrawAmountRefreshesCache() throws BadRequestException {
+        Mockito.when(balanceService.withdraw(1010101010L, 10000L)).thenReturn(account);
+        bankingController.custAcctWithdraw(100.0, 1010101010L, null);
+        Mockito.verify(accountCache).put(account);
     }
 
     @Test
-    public void updateCustomerAcctExceptionTest() {
-        Mockito.when(customerRepo.save(customer)).thenReturn(customer);
-        bankingController.updateCustAcct(customer);
-        Assertions.assertNotNull(customer);
+    public void ledgerDepositInvalidatesCache() throws BadRequestException {
+        Mockito.when(balanceService.deposit(1010101010L, 10000L)).thenReturn(account);
+        Mockito.when(account.getAccountNum()).thenReturn(1010101010L);
+        Mockito.when(ledgerService.isEnabled()).thenReturn(true);
+        bankingController.custAcctDeposit(100.0, 1010101010L, null);
+        Mockito.verify(accountCache).invalidate(1010101010L);
+        Mockito.verify(accountCache, Mockito.never()).put(Mockito.any());
     }
 
     @Test
-    public void deleteCustAcctTest() {
-        List<Customer> customerList = Mockito.mock(List.class);
-        List<Account> accList = Mockito.mock(List.class);
-        Iterator<Customer> itr = Mockito.mock(Iterator.class);
-        Iterator<Account> itr1 = Mockito.mock(Iterator.class);
-
-        Mockito.when(customerRepo.findAll()).thenReturn(customerList);
-        Mockito.when(customerList.iterator()).thenReturn(itr);
-        Mockito.when(itr.hasNext()).thenReturn(true);
-        Mockito.when(itr.next()).thenReturn(customer);
+    public void updateCustomerAcctTest() throws BadRequestException {
+        CustomerResponse request = new CustomerResponse(1L, "Vikram", null, null, null);
+        Mockito.when(updateService.update(request)).thenReturn(customer);
+        Mockito.when(customer.getAccounts()).thenReturn(Collections.singletonList(account));
+        Mockito.when(account.getAccountNum()).thenReturn(1010101010L);
+        ResponseEntity<CustomerResponse> res = bankingController.updateCustAcct(request);
+        Assertions.assertEquals(1010101010L, res.getBody().getAccounts().get(0).getAccountNum());
+        Mockito.verify(accountCache).invalidate(1010101010L);
+    }
 
-        Mockito.when(customer.getAccounts()).thenReturn(accList);
-        Mockito.when(accList.iterator()).thenReturn(itr1);
-        Mockito.when(itr1.hasNext()).thenReturn(true);
-        Mockito.when(itr1.next()).thenReturn(account);
+    @Test
+    public void updateCustomerAcctExceptionTest() throws BadRequestException {
+        CustomerResponse request = new CustomerResponse(99L, "Vikram", null, null, null);
+        Mockito.when(updateService.update(request)).thenThrow(new BadRequestException("Customer 99 does not exist.", HttpStatus.NOT_FOUND));
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.updateCustAcct(request));
+        Mockito.verifyNoInteractions(accountCache);
+    }
 
-        Mockito.when(account.getAccountNum()).thenReturn(1234567899L);
-        Mockito.doNothing().when(accountRepo).delete(account);
-        Mockito.when(customerRepo.saveAll(customerList)).thenReturn(customerList);
+    @Test
+    public void deleteCustAcctTest() {
+        Mockito.when(accountRepo.findByAccountNum(1234567899L)).thenReturn(account);
+        Mockito.when(accountRepo.deleteByAccountNum(1234567899L)).thenReturn(1);
 
-        bankingController.deleteCustAcct(1234567899L);
+        ResponseEntity<Account> response = bankingController.deleteCustAcct(1234567899L);
 
-        Assertions.assertNotNull(account);
+        Assertions.assertEquals(account, response.getBody());
+        Mockito.verify(customerRepo, Mockito.never()).findAll();
+        Mockito.verify(accountCache).invalidate(1234567899L);
     }
 
     @Test
     public void deleteCustAcctExceptionTest() {
-        List<Customer> customerList = Mockito.mock(List.class);
-        List<Account> accList = Mockito.mock(List.class);
-        Iterator<Customer> itr = Mockito.mock(Iterator.class);
-        Iterator<Account> itr1 = Mockito.mock(Iterator.class);
+        Mockito.when(accountRepo.findByAccountNum(1234567899L)).thenReturn(null);
 
-        Mockito.when(customerRepo.findAll()).thenReturn(Collections.emptyList());
+        ResponseEntity<Account> response = bankingController.deleteCustAcct(1234567899L);
 
-        bankingController.deleteCustAcct(1234567899L);
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        Mockito.verify(accountRepo, Mockito.never()).deleteByAccountNum(Mockito.anyLong());
     }
 
     @Test
     public void withdrawAmount() throws BadRequestException {
-        Account acct = Mockito.mock(Account.class);
         Account res = Mockito.mock(Account.class);
-        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
-        Mockito.when(acct.getBalanceAmt()).thenReturn(1000.0);
         Mockito.when(res.getBalanceAmt()).thenReturn(900.0);
-        Mockito.when(accountRepo.save(acct)).thenReturn(res);
-        ResponseEntity<Account> response = bankingController.custAcctWithdraw(100.0, 1010101010L);
+        Mockito.when(balanceService.withdraw(1010101010L, 10000L)).thenReturn(res);
+        ResponseEntity<Account> response = bankingController.custAcctWithdraw(100.0, 1010101010L, null);
         Assertions.assertEquals(900.0d, response.getBody().getBalanceAmt());
     }
 
     @Test
-    public void withdrawAmountMinAccBal() throws BadRequestException {
-        Account acct = Mockito.mock(Account.class);
-        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
-        Mockito.when(acct.getBalanceAmt()).thenReturn(1000.0);
+    public void withdrawAmountRejected() throws BadRequestException {
+        Mockito.when(balanceService.withdraw(1010101010L, 100000L))
+                .thenThrow(new BadRequestException("Account balance should not be less than Rs.100.0. Please withdraw lesser amount.", HttpStatus.BAD_REQUEST));
 
-        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctWithdraw(1000.0, 1010101010L));
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctWithdraw(1000.0, 1010101010L, null));
     }
 
     @Test
-    public void withdrawAmount90PercentAccBal() throws BadRequestException {
-        Account acct = Mockito.mock(Account.class);
-        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
-        Mockito.when(acct.getBalanceAmt()).thenReturn(1000.0);
-
-        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctWithdraw(910.0, 1010101010L));
+    public void transferAmount() throws BadRequestException {
+        Account from = new Account();
+        from.setAccountNum(1010101010L);
+        Account to = new Account();
+        to.setAccountNum(2020202020L);
+        Mockito.when(balanceService.transfer(1010101010L, 2020202020L, 10000L)).thenReturn(new TransferResult(from, to));
+        ResponseEntity<TransferResult> response = bankingController.transfer(1010101010L, 2020202020L, 100.0, null);
+        Assertions.assertSame(from, response.getBody().getFromAccount());
+        Mockito.verify(accountCache).put(from);
+        Mockito.verify(accountCache).put(to);
     }
 
     @Test
     public void depositAmount() throws BadRequestException {
-        Account acct = Mockito.mock(Account.class);
         Account res = Mockito.mock(Account.class);
-        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
-        Mockito.when(acct.getBalanceAmt()).thenReturn(1000.0);
         Mockito.when(res.getBalanceAmt()).thenReturn(1100.0);
-        Mockito.when(accountRepo.save(acct)).thenReturn(res);
-        ResponseEntity<Account> response = bankingController.custAcctDeposit(100.0, 1010101010L);
+        Mockito.when(balanceService.deposit(1010101010L, 10000L)).thenReturn(res);
+        ResponseEntity<Account> response = bankingController.custAcctDeposit(100.0, 1010101010L, null);
         Assertions.assertEquals(1100.0d, response.getBody().getBalanceAmt());
     }
 
     @Test
-    public void depositAmountLimit() throws BadRequestException {
-        Account acct = Mockito.mock(Account.class);
-        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
+    public void depositAmountRejected() throws BadRequestException {
+        Mockito.when(balanceService.deposit(1010101010L, 1001000L))
+                .thenThrow(new BadRequestException("Deposit amount should be less than Rs.10000.0 per transaction.", HttpStatus.BAD_REQUEST));
 
-        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctDeposit(10010.0, 1010101010L));
+        Assertions.assertThrows(BadRequestException.class, () -> bankingController.custAcctDeposit(10010.0, 1010101010L, null));
     }
 }
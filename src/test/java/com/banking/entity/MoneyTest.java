@@ -0,0 +1,38 @@
+package com.banking.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MoneyTest {
+
+    @Test
+    public void rupeesRoundTripWithoutDriftTest() {
+        Assertions.assertEquals(29L, Money.ofRupees(0.29d));
+        Assertions.assertEquals(100000L, Money.ofRupees(1000.0d));
+        Assertions.assertEquals(1000.01d, Money.toRupees(Money.ofRupees(1000.01d)));
+
+        long balance = 0L;
+        for (int i = 0; i < 1000; i++) {
+            balance += Money.ofRupees(0.1d);
+        }
+        Assertions.assertEquals(10000L, balance);
+    }
+
+    @Test
+    public void exceedsPercentOfTest() {
+        Assertions.assertFalse(Money.exceedsPercentOf(90000L, 100000L, 90));
+        Assertions.assertTrue(Money.exceedsPercentOf(90001L, 100000L, 90));
+    }
+
+    @Test
+    public void accountSerializesBalanceInRupeesTest() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Account acct = mapper.readValue("{\"balanceAmt\":\"1000.10\"}", Account.class);
+        Assertions.assertEquals(100010L, acct.getBalancePaise());
+
+        String json = mapper.writeValueAsString(acct);
+        Assertions.assertTrue(json.contains("\"balanceAmt\":1000.1"));
+        Assertions.assertFalse(json.contains("balancePaise"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AccountBalanceServiceStressTest {
+
+    private static final int THREADS = 8;
+    private static final int DEPOSITS_PER_THREAD = 200;
+    private static final int TRANSFER_ACCOUNTS = 6;
+    private static final int TRANSFERS_PER_THREAD = 300;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @EnumSource(ConcurrencyMode.class)
+    public void concurrentDepositsLoseNoUpdatesTest(ConcurrencyMode mode) throws Exception {
+        Long accountNum = 30000000000L + mode.ordinal();
+        Account acct = new Account();
+        acct.setAccountNum(accountNum);
+        acct.setBalanceAmt(1000.0d);
+        accountRepo.save(acct);
+
+        LedgerService ledgerService = new LedgerService(accountRepo, transactionRepo, transactionManager, mode);
+        AccountBalanceService balanceService = new AccountBalanceService(accountRepo, ledgerService, transactionManager, mode, 50, 64);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int j = 0; j < DEPOSITS_PER_THREAD; j++) {
+                    try {
+                        balanceService.deposit(accountNum, 100L);
+                        applied.incrementAndGet();
+                    } catch (BadRequestException ex) {
+                        // optimistic retries exhausted, nothing was written
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        pool.shutdown();
+
+        Account result = ledgerService.currentAccount(accountNum);
+        accountRepo.deleteByAccountNum(accountNum);
+        System.out.printf("%s: %d of %d deposits applied in %d ms (%d ops/s)%n",
+                mode, applied.get(), THREADS * DEPOSITS_PER_THREAD, elapsedMs, applied.get() * 1000L / elapsedMs);
+
+        Assertions.assertEquals(100000L + applied.get() * 100L, result.getBalancePaise());
+        if (mode != ConcurrencyMode.OPTIMISTIC) {
+            Assertions.assertEquals(THREADS * DEPOSITS_PER_THREAD, applied.get());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConcurrencyMode.class)
+    public void concurrentTransfersConserveMoneyTest(ConcurrencyMode mode) throws Exception {
+        Long firstAccountNum = 31000000000L + mode.ordinal() * 100L;
+        for (int i = 0; i < TRANSFER_ACCOUNTS; i++) {
+            Account acct = new Account();
+            acct.setAccountNum(firstAccountNum + i);
+            acct.setBalanceAmt(1000.0d);
+            accountRepo.save(acct);
+        }
+
+        LedgerService ledgerService = new LedgerService(accountRepo, transactionRepo, transactionManager, mode);
+        AccountBalanceService balanceService = new AccountBalanceService(accountRepo, ledgerService, transactionManager, mode, 50, 64);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger deposited = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int j = 0; j < TRANSFERS_PER_THREAD; j++) {
+                    Long from = firstAccountNum + random.nextInt(TRANSFER_ACCOUNTS);
+                    Long to = firstAccountNum + (from - firstAccountNum + 1 + random.nextInt(TRANSFER_ACCOUNTS - 1)) % TRANSFER_ACCOUNTS;
+                    // deposits in between leave pending ledger entries for the transfers to fold
+                    if (j % 10 == 0) {
+                        try {
+                            balanceService.deposit(to, 100L);
+                            deposited.incrementAndGet();
+                        } catch (BadRequestException ex) {
+                            // optimistic retries exhausted, nothing was written
+                        }
+                    }
+                    try {
+                        balanceService.transfer(from, to, 100L * (1 + random.nextInt(500)));
+                        applied.incrementAndGet();
+                    } catch (BadRequestException ex) {
+                        // balance rule, nothing was moved
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            // a deadlock would surface here as a lock timeout from the database or a hung worker
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        pool.shutdown();
+
+        long total = 0;
+        for (int i = 0; i < TRANSFER_ACCOUNTS; i++) {
+            Account acct = ledgerService.currentAccount(firstAccountNum + i);
+            Assertions.assertTrue(acct.getBalancePaise() >= 10000L, "balance " + acct.getBalancePaise());
+            total += acct.getBalancePaise();
+            accountRepo.deleteByAccountNum(firstAccountNum + i);
+        }
+        System.out.printf("%s: %d transfers applied, %d rejected by balance rules in %d ms (%d transfers/s)%n",
+                mode, applied.get(), rejected.get(), elapsedMs, applied.get() * 1000L / elapsedMs);
+
+        Assertions.assertEquals(TRANSFER_ACCOUNTS * 100000L + deposited.get() * 100L, total);
+        Assertions.assertEquals(THREADS * TRANSFERS_PER_THREAD, applied.get() + rejected.get());
+    }
+}
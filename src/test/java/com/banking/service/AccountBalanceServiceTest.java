@@ -0,0 +1,134 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountBalanceServiceTest {
+
+    @Mock
+    private AccountRepository accountRepo;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountBalanceService balanceService(ConcurrencyMode mode) {
+        return new AccountBalanceService(accountRepo, ledgerService, transactionManager, mode, 2, 16);
+    }
+
+    private Account account(double balanceAmt) {
+        Account acct = new Account();
+        acct.setAccountNum(1010101010L);
+        acct.setBalanceAmt(balanceAmt);
+        return acct;
+    }
+
+    @Test
+    public void withdrawAmount() throws BadRequestException {
+        Account acct = account(1000.0);
+        Mockito.when(accountRepo.findForUpdateByAccountNum(1010101010L)).thenReturn(acct);
+        Mockito.when(accountRepo.save(acct)).thenReturn(acct);
+        Account response = balanceService(ConcurrencyMode.PESSIMISTIC).withdraw(1010101010L, 10000L);
+        Assertions.assertEquals(90000L, response.getBalancePaise());
+    }
+
+    @Test
+    public void withdrawAmountMinAccBal() {
+        Mockito.when(accountRepo.findForUpdateByAccountNum(1010101010L)).thenReturn(account(1000.0));
+        Assertions.assertThrows(BadRequestException.class, () -> balanceService(ConcurrencyMode.PESSIMISTIC).withdraw(1010101010L, 100000L));
+        Mockito.verify(accountRepo, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void withdrawAmount90PercentAccBal() {
+        Mockito.when(accountRepo.findForUpdateByAccountNum(1010101010L)).thenReturn(account(1000.0));
+        Assertions.assertThrows(BadRequestException.class, () -> balanceService(ConcurrencyMode.PESSIMISTIC).withdraw(1010101010L, 91000L));
+    }
+
+    @Test
+    public void depositAmount() throws BadRequestException {
+        Account acct = account(1000.0);
+        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
+        Mockito.when(accountRepo.save(acct)).thenReturn(acct);
+        Account response = balanceService(ConcurrencyMode.STRIPED).deposit(1010101010L, 10000L);
+        Assertions.assertEquals(110000L, response.getBalancePaise());
+    }
+
+    @Test
+    public void depositAmountLimit() {
+        Assertions.assertThrows(BadRequestException.class, () -> balanceService(ConcurrencyMode.STRIPED).deposit(1010101010L, 1001000L));
+        Mockito.verifyNoInteractions(accountRepo);
+    }
+
+    @Test
+    public void depositUnknownAccount() {
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> balanceService(ConcurrencyMode.STRIPED).deposit(1010101010L, 10000L));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    public void depositOptimisticRetriesThenConflict() {
+        Account acct = account(1000.0);
+        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
+        Mockito.when(accountRepo.save(acct)).thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> balanceService(ConcurrencyMode.OPTIMISTIC).deposit(1010101010L, 10000L));
+        Assertions.assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        Mockito.verify(accountRepo, Mockito.times(3)).save(acct);
+    }
+
+    @Test
+    public void depositAtomically() throws BadRequestException {
+        Account acct = account(1100.0);
+        Mockito.when(accountRepo.depositAtomically(1010101010L, 10000L)).thenReturn(1);
+        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(acct);
+        Account response = balanceService(ConcurrencyMode.ATOMIC).deposit(1010101010L, 10000L);
+        Assertions.assertEquals(110000L, response.getBalancePaise());
+        Mockito.verify(accountRepo, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void withdrawAtomicallyReportsViolatedRule() {
+        Mockito.when(accountRepo.withdrawAtomically(1010101010L, 950000L, 10000L)).thenReturn(0);
+        Mockito.when(accountRepo.findByAccountNum(1010101010L)).thenReturn(account(10000.0));
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> balanceService(ConcurrencyMode.ATOMIC).withdraw(1010101010L, 950000L));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        Assertions.assertTrue(ex.getErrorMessage().startsWith("Cannot withdraw more than 90%"));
+    }
+
+    @Test
+    public void rejectionsCountedPerRule() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            Assertions.assertThrows(BadRequestException.class, () -> AccountBalanceService.checkDepositLimit(1001000L));
+            Assertions.assertThrows(BadRequestException.class, () -> AccountBalanceService.checkWithdrawal(100000L, 95000L));
+            Assertions.assertThrows(BadRequestException.class, () -> AccountBalanceService.checkWithdrawal(1000000L, 950000L));
+            Assertions.assertThrows(BadRequestException.class, () -> AccountBalanceService.checkWithdrawal(1000000L, 950000L));
+
+            Assertions.assertEquals(1.0d, registry.get("banking.rejections").tag("rule", "deposit_limit").counter().count());
+            Assertions.assertEquals(1.0d, registry.get("banking.rejections").tag("rule", "min_balance").counter().count());
+            Assertions.assertEquals(2.0d, registry.get("banking.rejections").tag("rule", "withdraw_percent").counter().count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
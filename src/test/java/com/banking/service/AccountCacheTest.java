@@ -0,0 +1,72 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountCacheTest {
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private Account account(long version, double balanceAmt) {
+        Account acct = new Account();
+        acct.setAccountNum(1010101010L);
+        acct.setVersion(version);
+        acct.setBalanceAmt(balanceAmt);
+        return acct;
+    }
+
+    @Test
+    public void readThroughLoadsOnceTest() {
+        AccountCache accountCache = new AccountCache(ledgerService, 100, 30);
+        Mockito.when(ledgerService.currentAccount(1010101010L)).thenReturn(account(0, 1000.0));
+
+        accountCache.get(1010101010L);
+        accountCache.get(1010101010L);
+
+        Mockito.verify(ledgerService, Mockito.times(1)).currentAccount(1010101010L);
+        Assertions.assertEquals(1L, accountCache.stats().get("hits"));
+        Assertions.assertEquals(1L, accountCache.stats().get("misses"));
+    }
+
+    @Test
+    public void olderVersionNeverReplacesNewerTest() {
+        AccountCache accountCache = new AccountCache(ledgerService, 100, 30);
+
+        accountCache.put(account(2, 1200.0));
+        accountCache.put(account(1, 1100.0));
+        Assertions.assertEquals(1200.0d, accountCache.get(1010101010L).getBalanceAmt());
+
+        accountCache.put(account(3, 1300.0));
+        Assertions.assertEquals(1300.0d, accountCache.get(1010101010L).getBalanceAmt());
+        Mockito.verifyNoInteractions(ledgerService);
+    }
+
+    @Test
+    public void invalidateForcesReloadTest() {
+        AccountCache accountCache = new AccountCache(ledgerService, 100, 30);
+        accountCache.put(account(1, 1100.0));
+        accountCache.invalidate(1010101010L);
+
+        Assertions.assertNull(accountCache.get(1010101010L));
+        Mockito.verify(ledgerService).currentAccount(1010101010L);
+    }
+
+    @Test
+    public void cacheMetricsBoundToRegistryTest() {
+        AccountCache accountCache = new AccountCache(ledgerService, 100, 30);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        accountCache.bindTo(registry);
+
+        accountCache.get(1010101010L);
+
+        Assertions.assertEquals(1.0d, registry.get("cache.gets").tag("cache", "account").tag("result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.service;
+
+import com.banking.entity.AccountNumberBlock;
+import com.banking.repository.AccountNumberBlockRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountNumberAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 2_500_000;
+    private static final int BLOCK_SIZE = 10_000;
+
+    @Mock
+    private AccountNumberBlockRepository blockRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void checkDigitTest() {
+        Assertions.assertEquals(3, AccountNumberAllocator.checkDigit(7992739871L));
+        Assertions.assertTrue(AccountNumberAllocator.isValid(79927398713L));
+        Assertions.assertFalse(AccountNumberAllocator.isValid(79927398714L));
+    }
+
+    @Test
+    public void firstNumbersAreSequentialWithCheckDigitTest() {
+        Mockito.when(blockRepo.findForUpdateByName(AccountNumberAllocator.BLOCK_NAME)).thenReturn(null);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(blockRepo, transactionManager, BLOCK_SIZE);
+
+        Assertions.assertEquals(10000000009L, allocator.next());
+        long second = allocator.next();
+        Assertions.assertEquals(1000000001L, second / 10);
+        Assertions.assertTrue(AccountNumberAllocator.isValid(second));
+    }
+
+    @Test
+    public void concurrentAllocationHasNoDuplicatesTest() throws Exception {
+        AccountNumberBlock counter = new AccountNumberBlock(AccountNumberAllocator.BLOCK_NAME, 0L);
+        Mockito.when(blockRepo.findForUpdateByName(AccountNumberAllocator.BLOCK_NAME)).thenReturn(counter);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(blockRepo, transactionManager, BLOCK_SIZE);
+
+        long total = (long) THREADS * NUMBERS_PER_THREAD;
+        AtomicLongArray seen = new AtomicLongArray((int) (total / 64) + BLOCK_SIZE);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> workers = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(pool.submit(() -> {
+                long duplicates = 0;
+                for (int j = 0; j < NUMBERS_PER_THREAD; j++) {
+                    long accountNum = allocator.next();
+                    long index = accountNum / 10 - AccountNumberAllocator.FIRST_SERIAL;
+                    if (!mark(seen, index) || !AccountNumberAllocator.isValid(accountNum)) {
+                        duplicates++;
+                    }
+                }
+                return duplicates;
+            }));
+        }
+        long duplicates = 0;
+        for (Future<Long> worker : workers) {
+            duplicates += worker.get();
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        pool.shutdown();
+
+        System.out.printf("%d account numbers on %d threads in %d ms (%d per second)%n",
+                total, THREADS, elapsedMs, total * 1000 / elapsedMs);
+        Assertions.assertEquals(0L, duplicates);
+        Assertions.assertEquals(total / BLOCK_SIZE, counter.getNextBlock());
+    }
+
+    private static boolean mark(AtomicLongArray seen, long index) {
+        int word = (int) (index >>> 6);
+        long bit = 1L << (index & 63);
+        while (true) {
+            long current = seen.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (seen.compareAndSet(word, current, current | bit)) {
+                return true;
+            }
+        }
+    }
+}
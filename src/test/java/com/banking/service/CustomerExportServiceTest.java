@@ -0,0 +1,87 @@
+package com.banking.service;
+
+import com.banking.dto.CustomerPage;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import java.io.OutputStream;
+import java.util.Collections;
+
+@DataJpaTest
+public class CustomerExportServiceTest {
+
+    private static final int CUSTOMERS = 5000;
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CustomerExportService exportService;
+
+    @BeforeEach
+    public void setUp() {
+        exportService = new CustomerExportService(customerRepo, entityManager, new ObjectMapper(), PAGE_SIZE);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Account acct = new Account();
+            acct.setAccountNum(40000000000L + i);
+            acct.setBalanceAmt(1000.0d);
+            Customer cust = new Customer();
+            cust.setCustName("Export" + i);
+            cust.setAccounts(Collections.singletonList(acct));
+            entityManager.persist(cust);
+            if (i % PAGE_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void streamKeepsOnePageInMemoryTest() throws Exception {
+        Session session = entityManager.unwrap(Session.class);
+        int[] lines = {0};
+        int[] maxManagedEntities = {0};
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n') {
+                    lines[0]++;
+                    maxManagedEntities[0] = Math.max(maxManagedEntities[0], session.getStatistics().getEntityCount());
+                }
+            }
+        };
+
+        exportService.writeNdjson(out);
+
+        Assertions.assertEquals(CUSTOMERS, lines[0]);
+        Assertions.assertTrue(maxManagedEntities[0] <= 2 * PAGE_SIZE, "managed entities: " + maxManagedEntities[0]);
+    }
+
+    @Test
+    public void keysetPagesCoverEveryCustomerOnceTest() throws BadRequestException {
+        int seen = 0;
+        Long afterCustId = 0L;
+        while (afterCustId != null) {
+            CustomerPage page = exportService.page(afterCustId, PAGE_SIZE);
+            seen += page.getCustomers().size();
+            afterCustId = page.getNextCustId();
+        }
+        Assertions.assertEquals(CUSTOMERS, seen);
+        Assertions.assertThrows(BadRequestException.class, () -> exportService.page(0L, PAGE_SIZE + 1));
+    }
+}
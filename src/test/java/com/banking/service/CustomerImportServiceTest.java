@@ -0,0 +1,101 @@
+package com.banking.service;
+
+import com.banking.config.ShardRouting;
+import com.banking.dto.ImportResult;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountNumberBlockRepository;
+import com.banking.repository.CustomerRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CustomerImportServiceTest {
+
+    private static final int GOOD_ROWS = 1234;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private AccountNumberBlockRepository blockRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void importsValidRowsAndRejectsTheRestTest() throws IOException {
+        StringBuilder csv = new StringBuilder(CustomerImportService.HEADER).append('\n');
+        for (int i = 0; i < GOOD_ROWS; i++) {
+            csv.append(i % 2 == 0 ? "Imported Customer" : "\"Customer, Imported\"")
+                    .append(",1990-01-15,imported").append(i).append("@example.com,").append(500 + i % 100).append('\n');
+            if (i == 100) {
+                csv.append("Bad Date,15/01/1990,bad@example.com,500\n");
+                csv.append("Over Limit,1990-01-15,over@example.com,10000.01\n");
+                csv.append("Missing Fields,1990-01-15\n");
+                csv.append(",1990-01-15,noname@example.com,500\n");
+            }
+        }
+        Path rejectFile = tempDir.resolve("rejects.csv");
+        CustomerImportService importService = new CustomerImportService(customerRepo,
+                new AccountNumberAllocator(blockRepo, transactionManager, 100),
+                new DefaultListableBeanFactory().getBeanProvider(ShardRouting.class), 50, 4, tempDir.toString());
+
+        ImportResult result = importService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), rejectFile);
+
+        List<Customer> imported = customerRepo.findByCustName("Imported Customer");
+        imported.addAll(customerRepo.findByCustName("Customer, Imported"));
+        List<String> rejects = Files.readAllLines(rejectFile);
+        customerRepo.deleteAll(imported);
+
+        Assertions.assertEquals(GOOD_ROWS + 4, result.getRows());
+        Assertions.assertEquals(GOOD_ROWS, result.getImported());
+        Assertions.assertEquals(4, result.getRejected());
+        Assertions.assertEquals(GOOD_ROWS, imported.size());
+        Set<Long> accountNums = new HashSet<>();
+        for (Customer cust : imported) {
+            Account acct = cust.getAccounts().get(0);
+            Assertions.assertTrue(AccountNumberAllocator.isValid(acct.getAccountNum()));
+            accountNums.add(acct.getAccountNum());
+        }
+        Assertions.assertEquals(GOOD_ROWS, accountNums.size());
+        Assertions.assertEquals(5, rejects.size());
+        Assertions.assertTrue(rejects.get(1).startsWith("103,Bad Date,"), rejects.get(1));
+        Assertions.assertTrue(rejects.get(2).contains("Rs.10000.0"), rejects.get(2));
+    }
+
+    @Test
+    public void splitCsvHonorsQuotesTest() {
+        Assertions.assertEquals(Arrays.asList("Rao, \"Vikram\"", "1990-01-15", "", "10"),
+                CustomerImportService.splitCsv("\"Rao, \"\"Vikram\"\"\",1990-01-15,,10"));
+    }
+
+    @Test
+    public void parseRejectsBadEmailTest() {
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class,
+                () -> CustomerImportService.parse("Vikram,1990-01-15,not-an-email,100"));
+        Assertions.assertEquals("Email address is not valid.", ex.getErrorMessage());
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.service;
+
+import com.banking.dto.CustomerSearchPage;
+import com.banking.dto.CustomerSummary;
+import com.banking.entity.Customer;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.CustomerRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+public class CustomerSearchServiceTest {
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CustomerSearchService searchService;
+
+    @BeforeEach
+    public void setUp() {
+        searchService = new CustomerSearchService(customerRepo, 100);
+        for (String name : Arrays.asList("Vikram", "vikas", "VIKRAM  Rao", "Vîkram", "Anand", "Vijay")) {
+            Customer cust = new Customer();
+            cust.setCustName(name);
+            entityManager.persist(cust);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void prefixMatchIgnoresCaseAndAccentsTest() throws BadRequestException {
+        List<String> names = names(searchService.searchByName("VIK", 10, null, null));
+        Assertions.assertEquals(Arrays.asList("vikas", "Vikram", "Vîkram", "VIKRAM  Rao"), names);
+        Assertions.assertEquals(Arrays.asList("VIKRAM  Rao"), names(searchService.searchByName("vikram r", 10, null, null)));
+    }
+
+    @Test
+    public void pagesFollowTheNameOrderTest() throws BadRequestException {
+        List<String> names = new ArrayList<>();
+        CustomerSearchPage page = searchService.searchByName("vi", 2, null, null);
+        names.addAll(names(page));
+        while (page.getNextAfterName() != null) {
+            page = searchService.searchByName("vi", 2, page.getNextAfterName(), page.getNextAfterCustId());
+            names.addAll(names(page));
+        }
+        Assertions.assertEquals(Arrays.asList("Vijay", "vikas", "Vikram", "Vîkram", "VIKRAM  Rao"), names);
+        Assertions.assertThrows(BadRequestException.class, () -> searchService.searchByName(" ", 10, null, null));
+        Assertions.assertThrows(BadRequestException.class, () -> searchService.searchByName("vi", 101, null, null));
+    }
+
+    @Test
+    public void searchNameKeptInSyncOnUpdateTest() throws BadRequestException {
+        Customer cust = customerRepo.findByCustName("Anand").get(0);
+        cust.setCustName("Zoya");
+        customerRepo.saveAndFlush(cust);
+        entityManager.clear();
+
+        Assertions.assertEquals(Arrays.asList("Zoya"), names(searchService.searchByName("zo", 10, null, null)));
+        Assertions.assertTrue(searchService.searchByName("an", 10, null, null).getCustomers().isEmpty());
+    }
+
+    @Test
+    public void prefixSearchUsesTheIndexTest() {
+        String plan = (String) entityManager.createNativeQuery(
+                "EXPLAIN SELECT cust_id FROM customer WHERE search_name >= 'vik' AND search_name < 'vil' ORDER BY search_name, cust_id")
+                .getSingleResult();
+        Assertions.assertTrue(plan.toLowerCase().contains("idx_customer_search_name"), plan);
+    }
+
+    private static List<String> names(CustomerSearchPage page) {
+        return page.getCustomers().stream().map(CustomerSummary::getCustName).collect(Collectors.toList());
+    }
+}
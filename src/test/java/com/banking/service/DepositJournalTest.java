@@ -0,0 +1,60 @@
+package com.banking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class DepositJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void durableRecordsSurviveReopenTest() throws Exception {
+        Path path = dir.resolve("journal.bin");
+        try (DepositJournal journal = new DepositJournal(path, 16)) {
+            journal.recover(0);
+            journal.append(1010101010L, 100L);
+            journal.append(2020202020L, 200L);
+            long seq = journal.append(1010101010L, 300L);
+            journal.awaitDurable(seq);
+            Assertions.assertEquals(3L, journal.durableSeq());
+        }
+
+        try (DepositJournal journal = new DepositJournal(path, 1024)) {
+            Assertions.assertEquals(3L, journal.recover(1));
+            List<DepositJournal.Entry> entries = journal.read(1, 3);
+            Assertions.assertEquals(2, entries.size());
+            Assertions.assertEquals(2020202020L, entries.get(0).accountNum);
+            Assertions.assertEquals(300L, entries.get(1).amountPaise);
+        }
+    }
+
+    @Test
+    public void fullJournalRejectsUntilReleasedTest() throws Exception {
+        Path path = dir.resolve("journal.bin");
+        try (DepositJournal journal = new DepositJournal(path, 4)) {
+            journal.recover(0);
+            for (int i = 1; i <= 4; i++) {
+                Assertions.assertEquals(i, journal.append(1010101010L, i));
+            }
+            Assertions.assertEquals(-1L, journal.append(1010101010L, 5L));
+
+            journal.release(2);
+            journal.append(1010101010L, 5L);
+            journal.awaitDurable(journal.append(1010101010L, 6L));
+        }
+
+        try (DepositJournal journal = new DepositJournal(path, 4)) {
+            Assertions.assertEquals(6L, journal.recover(2));
+            List<DepositJournal.Entry> entries = journal.read(2, 6);
+            for (int i = 0; i < entries.size(); i++) {
+                Assertions.assertEquals(i + 3, entries.get(i).seq);
+                Assertions.assertEquals(i + 3, entries.get(i).amountPaise);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.banking.service;
+
+import java.nio.file.Paths;
+
+/**
+ * Appends deposits to a journal until the process is killed, printing each sequence once it is durable.
+ * Run in a child JVM by {@link WriteBehindDepositServiceTest}.
+ */
+public class DepositJournalWriter {
+
+    public static void main(String[] args) throws Exception {
+        DepositJournal journal = new DepositJournal(Paths.get(args[0]), Integer.parseInt(args[1]));
+        journal.recover(0);
+        long accountNum = Long.parseLong(args[2]);
+        while (true) {
+            long seq = journal.append(accountNum, 100L);
+            if (seq < 0) {
+                Thread.sleep(100);
+                continue;
+            }
+            journal.awaitDurable(seq);
+            System.out.println(seq);
+            System.out.flush();
+        }
+    }
+}
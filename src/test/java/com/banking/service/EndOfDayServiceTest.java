@@ -0,0 +1,126 @@
+package com.banking.service;
+
+import com.banking.config.ShardRouting;
+import com.banking.dto.EndOfDayResult;
+import com.banking.entity.Account;
+import com.banking.entity.JournalCheckpoint;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import com.banking.repository.JournalCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EndOfDayServiceTest {
+
+    private static final long FIRST_ACCOUNT_NUM = 90000000000L;
+    private static final int ACCOUNTS = 100;
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2026, 10, 18);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepo;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private EndOfDayService endOfDayService;
+
+    @BeforeEach
+    public void setUp() {
+        LedgerService ledgerService = new LedgerService(accountRepo, transactionRepo, transactionManager, ConcurrencyMode.ATOMIC);
+        // 3.65% a year is one paisa a day for every 10000 paise, and a fee of Rs.50
+        endOfDayService = new EndOfDayService(jdbcTemplate, checkpointRepo,
+                new DefaultListableBeanFactory().getBeanProvider(ShardRouting.class), ledgerService, new AccountCache(ledgerService, 100, 30),
+                transactionManager, 7, 4, 365, 50.0d, 500);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account acct = new Account();
+            acct.setAccountNum(FIRST_ACCOUNT_NUM + i);
+            acct.setBalancePaise(balance(i));
+            accounts.add(acct);
+        }
+        accountRepo.saveAll(accounts);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountRepo.deleteByAccountNum(FIRST_ACCOUNT_NUM + i);
+        }
+        checkpointRepo.findById(EndOfDayService.checkpointName(BUSINESS_DATE)).ifPresent(checkpointRepo::delete);
+    }
+
+    @Test
+    public void accruesInterestAndChargesFeesTest() {
+        EndOfDayResult result = endOfDayService.run(BUSINESS_DATE);
+
+        Assertions.assertTrue(result.getAccounts() >= ACCOUNTS, "accounts " + result.getAccounts());
+        Assertions.assertTrue(result.getFeesCharged() >= ACCOUNTS / 10, "fees " + result.getFeesCharged());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Assertions.assertEquals(expected(i), balanceOf(i), "account " + i);
+        }
+        Assertions.assertEquals(FIRST_ACCOUNT_NUM + ACCOUNTS - 1,
+                checkpointRepo.findById(EndOfDayService.checkpointName(BUSINESS_DATE)).get().getAppliedSeq());
+    }
+
+    @Test
+    public void resumesAfterCheckpointAndRunsOnceTest() {
+        int committed = ACCOUNTS / 2;
+        checkpointRepo.save(new JournalCheckpoint(EndOfDayService.checkpointName(BUSINESS_DATE), FIRST_ACCOUNT_NUM + committed - 1));
+
+        EndOfDayResult result = endOfDayService.run(BUSINESS_DATE);
+        endOfDayService.run(BUSINESS_DATE);
+
+        Assertions.assertEquals(FIRST_ACCOUNT_NUM + committed - 1, result.getResumedAfterAccountNum());
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Assertions.assertEquals(i < committed ? balance(i) : expected(i), balanceOf(i), "account " + i);
+        }
+    }
+
+    @Test
+    public void feeNeverExceedsBalanceTest() {
+        Assertions.assertEquals(5000L, endOfDayService.maintenanceFee(9999L));
+        Assertions.assertEquals(3000L, endOfDayService.maintenanceFee(3000L));
+        Assertions.assertEquals(0L, endOfDayService.maintenanceFee(10000L));
+        Assertions.assertEquals(0L, endOfDayService.dailyInterest(9999L));
+        Assertions.assertEquals(12L, endOfDayService.dailyInterest(123456L));
+    }
+
+    // every tenth account is below the Rs.100 minimum balance
+    private static long balance(int i) {
+        return i % 10 == 0 ? 3000L + i * 10 : 100000L + i * 1234;
+    }
+
+    private static long expected(int i) {
+        long balance = balance(i);
+        long fee = balance < 10000L ? Math.min(5000L, balance) : 0L;
+        return balance + balance / 10000L - fee;
+    }
+
+    private long balanceOf(int i) {
+        return accountRepo.findByAccountNum(FIRST_ACCOUNT_NUM + i).getBalancePaise();
+    }
+}
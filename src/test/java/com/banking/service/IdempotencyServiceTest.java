@@ -0,0 +1,181 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import com.banking.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotencyServiceTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepo;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @EnumSource(IdempotencyStore.class)
+    public void racingReplaysMutateOnceTest(IdempotencyStore store) throws Exception {
+        Long accountNum = 40000000000L + store.ordinal();
+        Account acct = new Account();
+        acct.setAccountNum(accountNum);
+        acct.setBalanceAmt(1000.0d);
+        accountRepo.save(acct);
+
+        LedgerService ledgerService = new LedgerService(accountRepo, transactionRepo, transactionManager, ConcurrencyMode.ATOMIC);
+        AccountBalanceService balanceService = new AccountBalanceService(accountRepo, ledgerService, transactionManager, ConcurrencyMode.ATOMIC, 50, 64);
+        // with the database store every other request goes to a second node that shares only the table
+        IdempotencyService[] nodes = store == IdempotencyStore.DATABASE
+                ? new IdempotencyService[]{newService(store, 1000), newService(store, 1000)}
+                : new IdempotencyService[]{newService(store, 1000)};
+        String key = "race-" + store;
+        AtomicInteger mutations = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<Account>>> requests = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            IdempotencyService node = nodes[i % nodes.length];
+            requests.add(pool.submit(() -> {
+                start.await();
+                return node.execute(key, () -> "deposit:" + accountNum + ":1.0", Account.class, () -> {
+                    mutations.incrementAndGet();
+                    return ResponseEntity.ok(balanceService.deposit(accountNum, 100L));
+                });
+            }));
+        }
+        start.countDown();
+        List<ResponseEntity<Account>> responses = new ArrayList<>();
+        for (Future<ResponseEntity<Account>> request : requests) {
+            responses.add(request.get());
+        }
+        pool.shutdown();
+
+        Account result = accountRepo.findByAccountNum(accountNum);
+        accountRepo.deleteByAccountNum(accountNum);
+        recordRepo.deleteAll();
+
+        Assertions.assertEquals(1, mutations.get());
+        Assertions.assertEquals(100100L, result.getBalancePaise());
+        for (ResponseEntity<Account> response : responses) {
+            Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+            Assertions.assertEquals(accountNum, response.getBody().getAccountNum());
+            Assertions.assertEquals(100100L, response.getBody().getBalancePaise());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(IdempotencyStore.class)
+    public void keyReusedForDifferentRequestTest(IdempotencyStore store) throws BadRequestException {
+        IdempotencyService idempotencyService = newService(store, 1000);
+        idempotencyService.execute("reused-" + store, () -> "deposit:1:1.0", String.class, () -> ResponseEntity.ok("first"));
+
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class, () -> idempotencyService.execute("reused-" + store,
+                () -> "deposit:1:2.0", String.class, () -> ResponseEntity.ok("second")));
+        recordRepo.deleteAll();
+
+        Assertions.assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatusCode());
+    }
+
+    @ParameterizedTest
+    @EnumSource(IdempotencyStore.class)
+    public void rejectedRequestIsNotStoredTest(IdempotencyStore store) throws BadRequestException {
+        IdempotencyService idempotencyService = newService(store, 1000);
+        Assertions.assertThrows(BadRequestException.class, () -> idempotencyService.execute("rejected-" + store, () -> "withdraw:1:1.0", String.class,
+                () -> {
+                    throw new BadRequestException("Insufficient balance", HttpStatus.BAD_REQUEST);
+                }));
+
+        ResponseEntity<String> retried = idempotencyService.execute("rejected-" + store, () -> "withdraw:1:1.0", String.class,
+                () -> ResponseEntity.ok("applied"));
+        recordRepo.deleteAll();
+
+        Assertions.assertEquals("applied", retried.getBody());
+    }
+
+    @Test
+    public void storedDatabaseResponseReplayedOnOtherNodeTest() throws BadRequestException {
+        newService(IdempotencyStore.DATABASE, 1000).execute("replayed", () -> "create:a", String.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("created"));
+
+        ResponseEntity<String> replayed = newService(IdempotencyStore.DATABASE, 1000).execute("replayed", () -> "create:a", String.class,
+                () -> ResponseEntity.ok("created again"));
+        recordRepo.deleteAll();
+
+        Assertions.assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        Assertions.assertEquals("created", replayed.getBody());
+    }
+
+    @Test
+    public void memoryFootprintPerEntryTest() throws BadRequestException {
+        int entries = 100_000;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        IdempotencyService idempotencyService = newService(IdempotencyStore.MEMORY, entries);
+        long before = usedHeapAfterGc(memory);
+        for (int i = 0; i < entries; i++) {
+            long accountNum = 1000000000L + i;
+            Account acct = new Account();
+            acct.setAccountNum(accountNum);
+            acct.setBalanceAmt(1000.0d);
+            idempotencyService.execute("3f2b8c9e-5d41-4a7f-9c1e-" + String.format("%012d", i), () -> "deposit:" + accountNum + ":1000.0",
+                    Account.class, () -> ResponseEntity.ok(acct));
+        }
+        long after = usedHeapAfterGc(memory);
+        long bytesPerEntry = (after - before) / entries;
+        System.out.printf("Idempotency cache: %d entries, %d bytes per entry, Account response and 36 character key included%n",
+                idempotencyService.size(), bytesPerEntry);
+
+        Assertions.assertEquals(entries, idempotencyService.size());
+        Assertions.assertTrue(bytesPerEntry < 2048, "bytes per entry " + bytesPerEntry);
+    }
+
+    private IdempotencyService newService(IdempotencyStore store, long maxEntries) {
+        return new IdempotencyService(recordRepo, entityManager, objectMapper, transactionManager, store, maxEntries, 3600, 10000);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
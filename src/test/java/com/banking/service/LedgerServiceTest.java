@@ -0,0 +1,122 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.entity.AccountTransaction;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+@DataJpaTest
+public class LedgerServiceTest {
+
+    private static final Long ACCOUNT_NUM = 50000000000L;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LedgerService ledgerService;
+
+    private AccountBalanceService balanceService;
+
+    @BeforeEach
+    public void setUp() {
+        ledgerService = new LedgerService(accountRepo, transactionRepo, transactionManager, ConcurrencyMode.LEDGER);
+        balanceService = new AccountBalanceService(accountRepo, ledgerService, transactionManager, ConcurrencyMode.LEDGER, 10, 64);
+        Account acct = new Account();
+        acct.setAccountNum(ACCOUNT_NUM);
+        acct.setBalanceAmt(1000.0d);
+        accountRepo.saveAndFlush(acct);
+    }
+
+    @Test
+    public void depositsAppendWithoutTouchingSnapshotTest() throws BadRequestException {
+        balanceService.deposit(ACCOUNT_NUM, 50000L);
+        Account response = balanceService.deposit(ACCOUNT_NUM, 50000L);
+
+        Assertions.assertEquals(200000L, response.getBalancePaise());
+        Assertions.assertEquals(100000L, accountRepo.findByAccountNum(ACCOUNT_NUM).getBalancePaise());
+        Assertions.assertEquals(200000L, ledgerService.currentAccount(ACCOUNT_NUM).getBalancePaise());
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class, () -> balanceService.deposit(1L, 100L));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    public void withdrawalsCheckPendingBalanceTest() throws BadRequestException {
+        balanceService.deposit(ACCOUNT_NUM, 900000L);
+
+        Account response = balanceService.withdraw(ACCOUNT_NUM, 850000L);
+        Assertions.assertEquals(150000L, response.getBalancePaise());
+
+        Assertions.assertThrows(BadRequestException.class, () -> balanceService.withdraw(ACCOUNT_NUM, 145000L));
+        Assertions.assertEquals(150000L, ledgerService.currentAccount(ACCOUNT_NUM).getBalancePaise());
+    }
+
+    @Test
+    public void compactionFoldsPendingIntoSnapshotTest() throws BadRequestException {
+        balanceService.deposit(ACCOUNT_NUM, 10000L);
+        balanceService.deposit(ACCOUNT_NUM, 20000L);
+        balanceService.withdraw(ACCOUNT_NUM, 5000L);
+
+        Assertions.assertEquals(3, ledgerService.compact(10));
+        Account snapshot = accountRepo.findByAccountNum(ACCOUNT_NUM);
+        Assertions.assertEquals(125000L, snapshot.getBalancePaise());
+        Assertions.assertEquals(transactionRepo.findAll().stream().mapToLong(AccountTransaction::getTxnId).max().getAsLong(),
+                snapshot.getCompactedTxnId());
+        Assertions.assertEquals(0L, transactionRepo.sumPendingByAccountNum(ACCOUNT_NUM));
+        Assertions.assertEquals(125000L, ledgerService.currentAccount(ACCOUNT_NUM).getBalancePaise());
+        Assertions.assertEquals(0, ledgerService.compact(10));
+
+        balanceService.deposit(ACCOUNT_NUM, 1000L);
+        Assertions.assertEquals(126000L, ledgerService.currentAccount(ACCOUNT_NUM).getBalancePaise());
+        Assertions.assertEquals(1, ledgerService.compact(10));
+    }
+
+    @Test
+    public void compactionSkipsEntriesOfDeletedAccountsTest() throws BadRequestException {
+        Long deletedAccountNum = ACCOUNT_NUM + 1;
+        for (long accountNum = ACCOUNT_NUM + 1; accountNum <= ACCOUNT_NUM + 3; accountNum++) {
+            Account acct = new Account();
+            acct.setAccountNum(accountNum);
+            acct.setBalanceAmt(1000.0d);
+            accountRepo.saveAndFlush(acct);
+            balanceService.deposit(accountNum, 1000L);
+        }
+        balanceService.deposit(ACCOUNT_NUM, 1000L);
+        accountRepo.deleteByAccountNum(deletedAccountNum);
+
+        // a batch of one has to page past the orphaned entries to reach the accounts after them
+        Assertions.assertEquals(3, ledgerService.compact(1));
+        Assertions.assertEquals(101000L, accountRepo.findByAccountNum(ACCOUNT_NUM + 3).getBalancePaise());
+        Assertions.assertNull(ledgerService.currentAccount(deletedAccountNum));
+        Assertions.assertEquals(0, ledgerService.compact(1));
+    }
+
+    @Test
+    public void statementListsNewestFirstTest() throws BadRequestException {
+        balanceService.deposit(ACCOUNT_NUM, 10000L);
+        balanceService.deposit(ACCOUNT_NUM, 20000L);
+        balanceService.withdraw(ACCOUNT_NUM, 5000L);
+        ledgerService.compact(10);
+
+        List<AccountTransaction> firstPage = ledgerService.statement(ACCOUNT_NUM, 0, 2);
+        Assertions.assertEquals(2, firstPage.size());
+        Assertions.assertEquals(-5000L, firstPage.get(0).getAmountPaise());
+        Assertions.assertEquals(20000L, firstPage.get(1).getAmountPaise());
+        Assertions.assertEquals(1, ledgerService.statement(ACCOUNT_NUM, 1, 2).size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.service;
+
+import com.banking.exception.RateLimitException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void bucketAllowsBurstThenRefillsAtRateTest() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0L);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0L, bucket.tryTake(0L));
+        }
+        Assertions.assertEquals(SECOND / 10, bucket.tryTake(0L));
+        Assertions.assertEquals(0L, bucket.tryTake(SECOND / 10));
+        Assertions.assertTrue(bucket.tryTake(SECOND / 10) > 0);
+
+        // idle long enough to fill up again, but never beyond the burst
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0L, bucket.tryTake(10 * SECOND));
+        }
+        Assertions.assertTrue(bucket.tryTake(10 * SECOND) > 0);
+    }
+
+    @Test
+    public void racingTakesNeverExceedCapacityTest() throws Exception {
+        int capacity = 10_000;
+        TokenBucket bucket = new TokenBucket(1, capacity, 0L);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger taken = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int j = 0; j < capacity; j++) {
+                    if (bucket.tryTake(0L) == 0) {
+                        taken.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        Assertions.assertEquals(capacity, taken.get());
+    }
+
+    @Test
+    public void limiterRejectsWithRetryAfterTest() throws RateLimitException {
+        RateLimiter rateLimiter = new RateLimiter(1000, 1000, 1, 2, 1000, 60);
+        rateLimiter.checkAccount(1010101010L);
+        rateLimiter.checkAccount(1010101010L);
+        rateLimiter.checkAccount(2020202020L);
+
+        RateLimitException ex = Assertions.assertThrows(RateLimitException.class, () -> rateLimiter.checkAccount(1010101010L));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatusCode());
+        Assertions.assertEquals(1L, ex.getRetryAfterSeconds());
+        rateLimiter.checkClient("ip:127.0.0.1");
+    }
+
+    @Test
+    public void bucketsStayBoundedTest() throws RateLimitException {
+        RateLimiter rateLimiter = new RateLimiter(1000, 1000, 10, 10, 1000, 60);
+        for (long accountNum = 0; accountNum < 100_000; accountNum++) {
+            rateLimiter.checkAccount(accountNum);
+        }
+        Assertions.assertTrue(rateLimiter.bucketCount() <= 1000, "buckets: " + rateLimiter.bucketCount());
+    }
+}
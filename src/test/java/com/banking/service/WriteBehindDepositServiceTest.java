@@ -0,0 +1,168 @@
+package com.banking.service;
+
+import com.banking.entity.Account;
+import com.banking.entity.DeadLetterDeposit;
+import com.banking.exception.BadRequestException;
+import com.banking.repository.AccountRepository;
+import com.banking.repository.AccountTransactionRepository;
+import com.banking.repository.DeadLetterDepositRepository;
+import com.banking.repository.JournalCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WriteBehindDepositServiceTest {
+
+    private static final Long ACCOUNT_NUM = 60000000000L;
+
+    @Autowired
+    private AccountRepository accountRepo;
+
+    @Autowired
+    private AccountTransactionRepository transactionRepo;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepo;
+
+    @Autowired
+    private DeadLetterDepositRepository deadLetterRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void setUp() {
+        Account acct = new Account();
+        acct.setAccountNum(ACCOUNT_NUM);
+        acct.setBalanceAmt(1000.0d);
+        accountRepo.save(acct);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        accountRepo.deleteByAccountNum(ACCOUNT_NUM);
+        checkpointRepo.deleteAll();
+        deadLetterRepo.deleteAll();
+    }
+
+    @Test
+    public void acknowledgedDepositsSurviveKillAndRestartTest() throws Exception {
+        Path journalPath = dir.resolve("deposit-journal.bin");
+        Path ackPath = dir.resolve("acks.txt");
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        // acks go to a file rather than a pipe, so they can still be read once the writer is killed
+        Process writer = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                DepositJournalWriter.class.getName(), journalPath.toString(), "100000", ACCOUNT_NUM.toString())
+                .redirectOutput(ackPath.toFile())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            while (lineCount(ackPath) < 500) {
+                Assertions.assertTrue(writer.isAlive(), "journal writer exited before it was killed");
+                Thread.sleep(10);
+            }
+        } finally {
+            writer.destroyForcibly().waitFor();
+        }
+        long acked = 0;
+        for (String line : Files.readAllLines(ackPath, StandardCharsets.UTF_8)) {
+            // the last line may have been cut short by the kill
+            if (!line.isEmpty()) {
+                acked = Math.max(acked, Long.parseLong(line));
+            }
+        }
+
+        WriteBehindDepositService restarted = writeBehindService(journalPath, 100000);
+        restarted.start();
+        long deposited = accountRepo.findByAccountNum(ACCOUNT_NUM).getBalancePaise() - 100000L;
+        restarted.stop();
+
+        Assertions.assertTrue(deposited >= acked * 100L, "acknowledged " + acked + " deposits, replayed " + deposited / 100);
+        Assertions.assertTrue(deposited <= (acked + 1) * 100L, "acknowledged " + acked + " deposits, replayed " + deposited / 100);
+
+        WriteBehindDepositService restartedAgain = writeBehindService(journalPath, 100000);
+        restartedAgain.start();
+        Assertions.assertEquals(100000L + deposited, accountRepo.findByAccountNum(ACCOUNT_NUM).getBalancePaise());
+        restartedAgain.stop();
+    }
+
+    @Test
+    public void depositsAreAcknowledgedThenWrittenInOneBatchTest() throws Exception {
+        WriteBehindDepositService service = writeBehindService(dir.resolve("deposit-journal.bin"), 4);
+        service.start();
+
+        service.deposit(ACCOUNT_NUM, 10000L);
+        service.deposit(ACCOUNT_NUM, 10000L);
+        Account response = service.deposit(ACCOUNT_NUM, 10000L);
+        Assertions.assertEquals(130000L, response.getBalancePaise());
+        Assertions.assertEquals(100000L, accountRepo.findByAccountNum(ACCOUNT_NUM).getBalancePaise());
+
+        Assertions.assertEquals(3, service.drain());
+        Assertions.assertEquals(130000L, accountRepo.findByAccountNum(ACCOUNT_NUM).getBalancePaise());
+
+        for (int i = 0; i < 4; i++) {
+            service.deposit(ACCOUNT_NUM, 100L);
+        }
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class, () -> service.deposit(ACCOUNT_NUM, 100L));
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        Assertions.assertThrows(BadRequestException.class, () -> service.deposit(1L, 100L));
+        service.stop();
+        Assertions.assertEquals(130400L, accountRepo.findByAccountNum(ACCOUNT_NUM).getBalancePaise());
+    }
+
+    @Test
+    public void depositsToDeletedAccountsAreDeadLetteredTest() throws Exception {
+        WriteBehindDepositService service = writeBehindService(dir.resolve("deposit-journal.bin"), 100);
+        service.start();
+
+        service.deposit(ACCOUNT_NUM, 10000L);
+        accountRepo.deleteByAccountNum(ACCOUNT_NUM);
+        // still in the account cache, but no longer in the database
+        BadRequestException ex = Assertions.assertThrows(BadRequestException.class, () -> service.deposit(ACCOUNT_NUM, 100L));
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+
+        Assertions.assertEquals(1, service.drain());
+        List<DeadLetterDeposit> deadLetters = deadLetterRepo.findAll();
+        Assertions.assertEquals(1, deadLetters.size());
+        Assertions.assertEquals(ACCOUNT_NUM, deadLetters.get(0).getAccountNum());
+        Assertions.assertEquals(10000L, deadLetters.get(0).getAmountPaise());
+        service.stop();
+    }
+
+    private static long lineCount(Path path) throws IOException {
+        long lines = 0;
+        for (byte b : Files.readAllBytes(path)) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private WriteBehindDepositService writeBehindService(Path journalPath, int capacity) {
+        LedgerService ledgerService = new LedgerService(accountRepo, transactionRepo, transactionManager, ConcurrencyMode.ATOMIC);
+        AccountCache accountCache = new AccountCache(ledgerService, 100, 30);
+        return new WriteBehindDepositService(accountRepo, checkpointRepo, deadLetterRepo, ledgerService, accountCache, transactionManager,
+                journalPath.toString(), capacity, 5000);
+    }
+}